@@ -38,6 +38,7 @@ OPTIONS:
   -i                     Build image and remove unused images
   -r                     Remove buildx cache
   -t                     Run tests
+  -b                     Run benchmarks and compare them against the baseline
   -d                     Dry-run JReleaser release
 EOF
   exit 1
@@ -62,6 +63,7 @@ readOptions() {
       -i) profile+="build-image," ;;
       -r) profile+="remove-buildx-cache," ;;
       -t) profile+="integration-tests,prepare-release," ;;
+      -b) profile+="benchmark," ;;
       -d) dryRunJReleaserRelease ;;
       -h|--help) usage ;;
       *) remainingOptions+=("${1}") ;;
@@ -37,15 +37,41 @@ usage() {
 Usage: $(basename "$0") [OPTION]...
 
 Starts container
+
+OPTIONS:
+  -o MODE                Build output mode: move target and build directories of Maven and Gradle projects
+                         to "tmpfs" (in memory, removed on restart) or to the "build-output" volume
+  -h                     Display this help
 EOF
   exit 1
 }
 
 main() {
+  readOptions "$@"
   cd ..
   start
 }
 
+readOptions() {
+  BUILD_OUTPUT_MOUNT=()
+  while getopts ":o:h" option; do
+    case "${option}" in
+      o) buildOutputMount "${OPTARG}" ;;
+      h|?) usage ;;
+    esac
+  done
+}
+
+buildOutputMount() {
+  local mode="${1}"
+  case "${mode}" in
+    # Docker mounts tmpfs noexec by default, native libraries extracted to java.io.tmpdir and built binaries must run
+    tmpfs) BUILD_OUTPUT_MOUNT=( --tmpfs /mnt/build-output:rw,exec ) ;;
+    volume) BUILD_OUTPUT_MOUNT=( --mount source=build-output,target=/mnt/build-output ) ;;
+    *) usage ;;
+  esac
+}
+
 step() {
     local message="${1}"
     echo -e "${STEP} ${LINE} ${message} ${LINE}"
@@ -59,6 +85,8 @@ start() {
     --mount type=bind,source=/tmp/.X11-unix,target=/tmp/.X11-unix \
     --env "DISPLAY=${DISPLAY}" \
     --shm-size 2g \
+    --ulimit nofile=1048576:1048576 \
+    ${BUILD_OUTPUT_MOUNT[@]+"${BUILD_OUTPUT_MOUNT[@]}"} \
     "${IMAGE_NAMESPACE}/${IMAGE_NAME}:${IMAGE_VERSION}"
 }
 
@@ -177,6 +177,7 @@ setupSdkMan() {
     fi
   done
   shopt -u nullglob
+  HOME="/home/${USER}" SDKMAN_DIR="/home/${USER}/.sdkman" jdvm-sdkman-env
 }
 
 setupTealdeer() {
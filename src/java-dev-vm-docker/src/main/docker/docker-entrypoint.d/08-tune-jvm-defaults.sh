@@ -0,0 +1,115 @@
+#!/bin/bash
+# WRITES JVM DEFAULTS TUNED FOR THE CPU AND MEMORY LIMITS OF THE CONTAINER
+
+#
+# © 2024-2025 Javaheim
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
+set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
+set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
+
+. "/usr/local/lib/jdvm/env-options.sh"
+
+readonly JVM_ENV_FILE="/etc/jdvm-templates/base/jvm-env"
+
+readonly INFO="\e[1;34m>\e[0m"
+
+main() {
+  local memoryMiB milliCpus profile
+  memoryMiB="$(memoryLimitMiB)"
+  milliCpus="$(cpuLimitMilliCpus)"
+  profile="$(selectProfile "${memoryMiB}" "${milliCpus}")"
+  echo -e "${INFO} Tune JVM defaults for ${memoryMiB} MiB and $(( milliCpus / 1000 )).$(( milliCpus % 1000 / 100 )) CPUs: ${profile} profile..."
+  writeJvmEnv "${memoryMiB}" "${milliCpus}" "${profile}" | sudo tee "${JVM_ENV_FILE}" > /dev/null
+}
+
+# cgroup v2 memory.max or cgroup v1 memory.limit_in_bytes, the physical memory when unlimited
+memoryLimitMiB() {
+  local limit="max" total
+  if [[ -f "/sys/fs/cgroup/memory.max" ]]; then
+    limit="$(< "/sys/fs/cgroup/memory.max")"
+  elif [[ -f "/sys/fs/cgroup/memory/memory.limit_in_bytes" ]]; then
+    limit="$(< "/sys/fs/cgroup/memory/memory.limit_in_bytes")"
+  fi
+  total="$(( $(awk '/^MemTotal:/ { print $2 }' "/proc/meminfo") * 1024 ))"
+  if [[ ! "${limit}" =~ ^[0-9]+$ ]] || (( limit > total )); then
+    limit="${total}"
+  fi
+  echo "$(( limit / 1024 / 1024 ))"
+}
+
+# cgroup v2 cpu.max or cgroup v1 CFS quota, the available processors when unlimited
+cpuLimitMilliCpus() {
+  local quota="max" period="100000" milliCpus
+  if [[ -f "/sys/fs/cgroup/cpu.max" ]]; then
+    read -r quota period < "/sys/fs/cgroup/cpu.max"
+  elif [[ -f "/sys/fs/cgroup/cpu/cpu.cfs_quota_us" ]]; then
+    quota="$(< "/sys/fs/cgroup/cpu/cpu.cfs_quota_us")"
+    period="$(< "/sys/fs/cgroup/cpu/cpu.cfs_period_us")"
+  fi
+  milliCpus="$(( $(nproc) * 1000 ))"
+  if [[ "${quota}" =~ ^[0-9]+$ ]] && (( quota * 1000 / period < milliCpus )); then
+    milliCpus="$(( quota * 1000 / period ))"
+  fi
+  echo "${milliCpus}"
+}
+
+# small: less than 4 GiB or 2 CPUs, large: 16 GiB and more, medium otherwise
+selectProfile() {
+  local memoryMiB="${1}" milliCpus="${2}"
+  if (( memoryMiB < 4096 || milliCpus < 2000 )); then
+    echo "small"
+  elif (( memoryMiB >= 16384 )); then
+    echo "large"
+  else
+    echo "medium"
+  fi
+}
+
+writeJvmEnv() {
+  local memoryMiB="${1}" milliCpus="${2}" profile="${3}"
+  # Every JVM takes a share of the container memory, so IDEs, daemons, Kafka and Testcontainers fit next to each other.
+  # Build tools get a bigger share, short-lived launchers skip the C2 compiler when CPUs or memory are scarce.
+  local javaToolOptions mavenOpts gradleOpts
+  case "${profile}" in
+    small)
+      javaToolOptions="-XX:MaxRAMPercentage=12.5"
+      mavenOpts="-XX:MaxRAMPercentage=25 -XX:TieredStopAtLevel=1"
+      gradleOpts="-XX:TieredStopAtLevel=1"
+      ;;
+    medium)
+      javaToolOptions="-XX:MaxRAMPercentage=20"
+      mavenOpts="-XX:MaxRAMPercentage=25"
+      gradleOpts="-XX:TieredStopAtLevel=1"
+      ;;
+    large)
+      javaToolOptions="-XX:MaxRAMPercentage=25"
+      mavenOpts="-XX:MaxRAMPercentage=25"
+      gradleOpts=""
+      ;;
+  esac
+  printf "%s\n" \
+    "# THIS FILE IS GENERATED ON STARTUP BY $(basename "$0")." \
+    "# DO NOT EDIT THIS FILE - ANY CHANGES WILL BE LOST." \
+    "# Container limits: ${memoryMiB} MiB memory, ${milliCpus} millicpus" \
+    "" \
+    "export JDVM_JVM_PROFILE=\"${profile}\""
+  prependOptions "JAVA_TOOL_OPTIONS" "${javaToolOptions}"
+  prependOptions "MAVEN_OPTS" "${mavenOpts}"
+  prependOptions "GRADLE_OPTS" "${gradleOpts}"
+}
+
+main
@@ -0,0 +1,94 @@
+#!/bin/bash
+# APPLIES AND VERIFIES THE KERNEL AND FILE DESCRIPTOR LIMITS OF THE PERFORMANCE PROFILE
+
+#
+# © 2024-2025 Javaheim
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
+set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
+set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
+
+readonly CONFIG_FILE="/etc/jdvm-config/performance-profile.conf"
+readonly USER_CONFIG_FILE="/home/${USER}/.config/jdvm/performance-profile.conf"
+readonly SYSTEMD_CONFIG_FILE="/etc/systemd/system.conf.d/jdvm-performance-profile.conf"
+
+readonly INFO="\e[1;34m>\e[0m"
+readonly WARN="\e[1;33m!\e[0m"
+
+PERFORMANCE_PROFILE="true"
+FS_INOTIFY_MAX_USER_WATCHES="1048576"
+FS_INOTIFY_MAX_USER_INSTANCES="1024"
+VM_MAX_MAP_COUNT="262144"
+NOFILE_LIMIT="1048576"
+
+main() {
+  readConfig
+  if [[ "${PERFORMANCE_PROFILE}" != "true" ]]; then
+    echo -e "${INFO} Performance profile disabled, keep the limits of the host"
+    sudo rm -f "${SYSTEMD_CONFIG_FILE}"
+    return
+  fi
+  echo -e "${INFO} Apply performance profile..."
+  raiseSysctl "fs.inotify.max_user_watches" "${FS_INOTIFY_MAX_USER_WATCHES}"
+  raiseSysctl "fs.inotify.max_user_instances" "${FS_INOTIFY_MAX_USER_INSTANCES}"
+  raiseSysctl "vm.max_map_count" "${VM_MAX_MAP_COUNT}"
+  setNofileLimit "${NOFILE_LIMIT}"
+}
+
+readConfig() {
+  local configFile
+  for configFile in "${CONFIG_FILE}" "${USER_CONFIG_FILE}"; do
+    if [[ -f "${configFile}" ]]; then
+      # shellcheck source=/dev/null
+      source "${configFile}"
+    fi
+  done
+}
+
+# The kernel parameters are shared with the host, so a higher value of the host is kept
+raiseSysctl() {
+  local key="${1}" value="${2}" current
+  current="$(sysctl --values "${key}")"
+  if (( current < value )); then
+    if ! sudo sysctl --quiet --write "${key}=${value}" 2> /dev/null; then
+      echo -e "${WARN} ${key} cannot be raised to ${value}, is the container privileged?"
+    fi
+  fi
+  verify "${key}" "$(sysctl --values "${key}")" "${value}"
+}
+
+# Written before systemd starts, so all services and the apps of the launcher get the limit
+setNofileLimit() {
+  local limit="${1}"
+  sudo mkdir --parents "$(dirname "${SYSTEMD_CONFIG_FILE}")"
+  printf "%s\n" \
+    "# THIS FILE IS GENERATED ON STARTUP BY $(basename "$0")." \
+    "# DO NOT EDIT THIS FILE - ANY CHANGES WILL BE LOST." \
+    "[Manager]" \
+    "DefaultLimitNOFILE=${limit}:${limit}" | sudo tee "${SYSTEMD_CONFIG_FILE}" > /dev/null
+  echo -e "${INFO} DefaultLimitNOFILE=${limit}"
+}
+
+verify() {
+  local key="${1}" effective="${2}" expected="${3}"
+  if (( effective >= expected )); then
+    echo -e "${INFO} ${key}=${effective}"
+  else
+    echo -e "${WARN} ${key}=${effective}, expected at least ${expected}"
+  fi
+}
+
+main
@@ -0,0 +1,86 @@
+#!/bin/bash
+# SETS UP THE BUILD OUTPUT MODE WHEN A TMPFS OR A VOLUME IS MOUNTED FOR THE BUILD OUTPUT
+
+#
+# © 2024-2025 Javaheim
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
+set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
+set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
+
+. "/usr/local/lib/jdvm/env-options.sh"
+
+readonly BUILD_OUTPUT_DIR="/mnt/build-output"
+readonly BUILD_OUTPUT_TMP_DIR="${BUILD_OUTPUT_DIR}/.tmp"
+readonly BUILD_OUTPUT_ENV_FILE="/etc/jdvm-templates/base/build-output-env"
+# Lowest precedence gradle.properties, read by the installed Gradle only
+readonly GRADLE_PROPERTIES_FILE="/opt/gradle/gradle.properties"
+# Default daemon JVM arguments of Gradle, replaced as a whole by org.gradle.jvmargs
+readonly GRADLE_DAEMON_JVM_ARGS="-Xmx512m -XX:MaxMetaspaceSize=384m -XX:+HeapDumpOnOutOfMemoryError"
+
+readonly INFO="\e[1;34m>\e[0m"
+
+main() {
+  if mountpoint --quiet "${BUILD_OUTPUT_DIR}"; then
+    echo -e "${INFO} Setup build output mode on $(findmnt --noheadings --output FSTYPE "${BUILD_OUTPUT_DIR}") at ${BUILD_OUTPUT_DIR}..."
+    sudo chown "${USER}:${USER}" "${BUILD_OUTPUT_DIR}"
+    removeStaleBuildOutput
+    writeBuildOutputEnv "true" | sudo tee "${BUILD_OUTPUT_ENV_FILE}" > /dev/null
+    writeGradleProperties > "${GRADLE_PROPERTIES_FILE}"
+  else
+    writeBuildOutputEnv "false" | sudo tee "${BUILD_OUTPUT_ENV_FILE}" > /dev/null
+    rm -f "${GRADLE_PROPERTIES_FILE}"
+  fi
+}
+
+# A volume outlives the projects, so the build output of deleted projects and the temp files are removed
+removeStaleBuildOutput() {
+  local buildDir projectDir
+  while IFS= read -r -d "" buildDir; do
+    projectDir="$(dirname "${buildDir#"${BUILD_OUTPUT_DIR}"}")"
+    if [[ ! -d "${projectDir}" ]]; then
+      echo -e "${INFO} Remove build output of ${projectDir}"
+      rm -rf "${buildDir}"
+    fi
+  done < <(find "${BUILD_OUTPUT_DIR}" -mindepth 2 -type d -not -path "${BUILD_OUTPUT_TMP_DIR}/*" \( -name "target" -o -name "build" \) -prune -print0)
+  find "${BUILD_OUTPUT_DIR}" -mindepth 1 -type d -empty -delete
+  rm -rf "${BUILD_OUTPUT_TMP_DIR}"
+  mkdir --parents "${BUILD_OUTPUT_TMP_DIR}"
+}
+
+writeBuildOutputEnv() {
+  local enabled="${1}"
+  printf "%s\n" \
+    "# THIS FILE IS GENERATED ON STARTUP BY $(basename "$0")." \
+    "# DO NOT EDIT THIS FILE - ANY CHANGES WILL BE LOST."
+  if [[ "${enabled}" == "true" ]]; then
+    # Read by the Maven extension and the Gradle init script, which move target and build directories
+    printf "\nexport JDVM_BUILD_OUTPUT_DIR=\"%s\"\n" "${BUILD_OUTPUT_DIR}"
+    prependOptions "MAVEN_OPTS" "-Djava.io.tmpdir=${BUILD_OUTPUT_TMP_DIR}"
+    prependOptions "GRADLE_OPTS" "-Djava.io.tmpdir=${BUILD_OUTPUT_TMP_DIR}"
+  fi
+}
+
+# GRADLE_OPTS only reaches the Gradle client, the daemon gets its temp directory from org.gradle.jvmargs.
+# The project and ~/.gradle/gradle.properties take precedence, so their org.gradle.jvmargs still win.
+writeGradleProperties() {
+  printf "%s\n" \
+    "# THIS FILE IS GENERATED ON STARTUP BY $(basename "$0")." \
+    "# DO NOT EDIT THIS FILE - ANY CHANGES WILL BE LOST." \
+    "org.gradle.jvmargs=${GRADLE_DAEMON_JVM_ARGS} -Djava.io.tmpdir=${BUILD_OUTPUT_TMP_DIR}"
+}
+
+main
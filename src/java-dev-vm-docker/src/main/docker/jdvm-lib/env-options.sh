@@ -0,0 +1,27 @@
+#!/bin/bash
+# FUNCTIONS WRITING JVM OPTIONS TO THE ENV FILES GENERATED ON STARTUP, SOURCED BY /docker-entrypoint.d SCRIPTS
+
+#
+# © 2024-2025 Javaheim
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+# Options are prepended once, the JVM takes the last occurrence, so options set by the caller or the user still win
+prependOptions() {
+  local variable="${1}" options="${2}"
+  if [[ -n "${options}" ]]; then
+    printf "\nif [[ \" \${%s-} \" != *\" %s \"* ]]; then\n" "${variable}" "${options}"
+    printf "  export %s=\"%s\${%s:+ \${%s}}\"\nfi\n" "${variable}" "${options}" "${variable}" "${variable}"
+  fi
+}
@@ -0,0 +1,100 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.maven;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Moves the build output of every project to the directory in the JDVM_BUILD_OUTPUT_DIR environment variable,
+ * e.g. /home/dev/projects/app/target to /mnt/build-output/home/dev/projects/app/target.
+ * The variable is set when the container is started with the build output mode of restart.sh or start.sh.
+ * Only the default layout is moved: build directories outside of the project directory are left as they are.
+ * The projects are read with ${project.build.directory} already interpolated, so the values of plugin configurations
+ * and properties under the old build directory are moved too.
+ */
+@Named("jdvm-build-output")
+@Singleton
+public class BuildOutputLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+    @Override
+    public void afterProjectsRead(MavenSession session) {
+        String buildOutputDir = System.getenv("JDVM_BUILD_OUTPUT_DIR");
+        if (buildOutputDir == null || buildOutputDir.trim().isEmpty()) {
+            return;
+        }
+        for (MavenProject project : session.getProjects()) {
+            Path basedir = project.getBasedir().toPath().toAbsolutePath().normalize();
+            Path relocatedBasedir = Paths.get(buildOutputDir).resolve(basedir.getRoot().relativize(basedir));
+            Build build = project.getBuild();
+            String directory = build.getDirectory();
+            build.setDirectory(relocate(directory, basedir, relocatedBasedir));
+            build.setOutputDirectory(relocate(build.getOutputDirectory(), basedir, relocatedBasedir));
+            build.setTestOutputDirectory(relocate(build.getTestOutputDirectory(), basedir, relocatedBasedir));
+            if (!build.getDirectory().equals(directory)) {
+                relocateInterpolated(project, directory, build.getDirectory());
+            }
+        }
+    }
+
+    private static void relocateInterpolated(MavenProject project, String directory, String relocatedDirectory) {
+        for (Plugin plugin : project.getBuildPlugins()) {
+            relocateConfiguration(plugin.getConfiguration(), directory, relocatedDirectory);
+            for (PluginExecution execution : plugin.getExecutions()) {
+                relocateConfiguration(execution.getConfiguration(), directory, relocatedDirectory);
+            }
+        }
+        Properties properties = project.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            properties.setProperty(name, relocateValue(properties.getProperty(name), directory, relocatedDirectory));
+        }
+    }
+
+    private static void relocateConfiguration(Object configuration, String directory, String relocatedDirectory) {
+        if (configuration instanceof Xpp3Dom) {
+            Xpp3Dom dom = (Xpp3Dom) configuration;
+            if (dom.getValue() != null) {
+                dom.setValue(relocateValue(dom.getValue(), directory, relocatedDirectory));
+            }
+            for (Xpp3Dom child : dom.getChildren()) {
+                relocateConfiguration(child, directory, relocatedDirectory);
+            }
+        }
+    }
+
+    private static String relocateValue(String value, String directory, String relocatedDirectory) {
+        return value.equals(directory) || value.startsWith(directory + File.separator)
+                ? relocatedDirectory + value.substring(directory.length()) : value;
+    }
+
+    private static String relocate(String directory, Path basedir, Path relocatedBasedir) {
+        Path path = Paths.get(directory).toAbsolutePath().normalize();
+        return path.startsWith(basedir) ? relocatedBasedir.resolve(basedir.relativize(path)).toString() : directory;
+    }
+
+}
@@ -25,6 +25,11 @@ set IMAGE_NAMESPACE=javaheim
 set CONTAINER_NAME=%IMAGE_NAME%
 set DISPLAY=:0
 
+@REM Build output mode: "restart.bat tmpfs" (in memory, removed on restart) or "restart.bat volume" (build-output volume)
+set BUILD_OUTPUT_MOUNT=
+if /i "%~1"=="tmpfs" set BUILD_OUTPUT_MOUNT=--tmpfs /mnt/build-output:rw,exec
+if /i "%~1"=="volume" set BUILD_OUTPUT_MOUNT=--mount source=build-output,target=/mnt/build-output
+
 echo Stopping %CONTAINER_NAME%...
 docker container stop "%CONTAINER_NAME%" > nul 2>&1
 
@@ -43,10 +48,13 @@ docker container run --privileged -d ^
     --mount source=maven,target=/home/dev/.m2/repository ^
     --mount source=home,target=/home/dev ^
     --mount source=docker,target=/var/lib/docker ^
+    --mount source=registry-mirror,target=/var/lib/jdvm-registry-mirror ^
     --mount type=bind,source="%USERPROFILE%/shared",target=/mnt/shared ^
     --mount type=bind,source=/run/desktop/mnt/host/wslg/.X11-unix,target=/tmp/.X11-unix ^
     --env DISPLAY="%DISPLAY%" ^
     --shm-size 2g ^
+    --ulimit nofile=1048576:1048576 ^
+    %BUILD_OUTPUT_MOUNT% ^
     "%IMAGE_NAMESPACE%/%IMAGE_NAME%:%IMAGE_VERSION%" > nul
 
 echo Cleaning dangling images...
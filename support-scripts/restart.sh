@@ -32,7 +32,22 @@ readonly INFO="[\e[1;34mINFO\e[0m]"
 readonly ERROR="[\e[1;31mERROR\e[0m]"
 readonly SUCCESS="[\e[1;32mSUCCESS\e[0m]"
 
+usage() {
+  cat << EOF
+Usage: $(basename "$0") [OPTION]...
+
+Restarts container
+
+OPTIONS:
+  -o MODE                Build output mode: move target and build directories of Maven and Gradle projects
+                         to "tmpfs" (in memory, removed on restart) or to the "build-output" volume
+  -h                     Display this help
+EOF
+  exit 1
+}
+
 main() {
+  readOptions "$@"
   step "Stop and remove"
   if ! isExecInstalled "docker"; then
     echo -e "${ERROR} The \"docker\" command is not installed. Please install it: https://docs.docker.com/engine/install/"
@@ -70,10 +85,13 @@ main() {
     --mount source=maven,target=/home/dev/.m2/repository \
     --mount source=home,target=/home/dev \
     --mount source=docker,target=/var/lib/docker \
+    --mount source=registry-mirror,target=/var/lib/jdvm-registry-mirror \
     --mount type=bind,source="${HOME}/shared",target=/mnt/shared \
     --mount type=bind,source=/tmp/.X11-unix,target=/tmp/.X11-unix \
     --env DISPLAY="${DISPLAY}" \
     --shm-size 2g \
+    --ulimit nofile=1048576:1048576 \
+    ${BUILD_OUTPUT_MOUNT[@]+"${BUILD_OUTPUT_MOUNT[@]}"} \
     "${IMAGE_NAMESPACE}/${IMAGE_NAME}:${IMAGE_VERSION}" >/dev/null
 
   echo -e "${INFO} Cleaning dangling images..."
@@ -82,6 +100,26 @@ main() {
   echo -e "${SUCCESS} Happy coding! ;)"
 }
 
+readOptions() {
+  BUILD_OUTPUT_MOUNT=()
+  while getopts ":o:h" option; do
+    case "${option}" in
+      o) buildOutputMount "${OPTARG}" ;;
+      h|?) usage ;;
+    esac
+  done
+}
+
+buildOutputMount() {
+  local mode="${1}"
+  case "${mode}" in
+    # Docker mounts tmpfs noexec by default, native libraries extracted to java.io.tmpdir and built binaries must run
+    tmpfs) BUILD_OUTPUT_MOUNT=( --tmpfs /mnt/build-output:rw,exec ) ;;
+    volume) BUILD_OUTPUT_MOUNT=( --mount source=build-output,target=/mnt/build-output ) ;;
+    *) usage ;;
+  esac
+}
+
 step() {
     local message="${1}"
     echo -e "${STEP} ${LINE} ${message} ${LINE}"
@@ -92,4 +130,4 @@ isExecInstalled() {
   command -v "${executable}" >/dev/null
 }
 
-main
+main "$@"
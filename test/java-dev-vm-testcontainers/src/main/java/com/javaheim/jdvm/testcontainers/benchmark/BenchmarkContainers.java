@@ -0,0 +1,81 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.shaded.org.apache.commons.lang3.StringUtils;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Java DEV VM containers of the benchmarks, configured the same way as restart.sh starts them: privileged, without
+ * a display and ready once healthy. Benchmarks add their own volumes, mounts and ports, and release the containers
+ * and volumes together with publishing their {@link BenchmarkReport} in {@link #publish}.
+ */
+public final class BenchmarkContainers {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+
+    private BenchmarkContainers() {
+        throw new AssertionError();
+    }
+
+    public static GenericContainer<?> javaDevVm(String image) {
+        return javaDevVm(image, STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Container with a longer startup timeout, e.g. when the image is pulled by the start.
+     */
+    public static GenericContainer<?> javaDevVm(String image, Duration startupTimeout) {
+        return new GenericContainer<>(DockerImageName.parse(image)).withPrivilegedMode(true)
+                .withEnv("DISPLAY", StringUtils.EMPTY)
+                .waitingFor(Wait.forHealthcheck().withStartupTimeout(startupTimeout));
+    }
+
+    /**
+     * Unique prefix of the volumes of a benchmark, so concurrent and aborted runs never share a volume,
+     * e.g. jdvm-benchmark-k3d-1a2b3c4d.
+     */
+    public static String volumesPrefix(String name) {
+        return "jdvm-benchmark-%s-%s".formatted(name, UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    public static void removeVolumes(List<String> volumes) {
+        for (String volume : volumes) {
+            DockerClientFactory.instance().client().removeVolumeCmd(volume).exec();
+        }
+    }
+
+    /**
+     * Stops the containers, removes the volumes and publishes the report, failing when a step regressed.
+     */
+    public static void publish(BenchmarkReport report, List<GenericContainer<?>> containers, List<String> volumes)
+            throws IOException {
+        containers.forEach(GenericContainer::stop);
+        removeVolumes(volumes);
+        assertThat(report.publish()).as("Regressions against the baseline").isEmpty();
+    }
+
+}
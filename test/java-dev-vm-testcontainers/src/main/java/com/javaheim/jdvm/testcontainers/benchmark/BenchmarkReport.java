@@ -0,0 +1,146 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.SerializationFeature;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON report of a benchmark run compared against the committed baseline.
+ * The report is written to target/benchmark/{benchmark}.json and the baseline is read from
+ * src/test/resources/benchmark/{benchmark}-baseline.json. A step regresses when its median exceeds
+ * the baseline median by more than the tolerance, or when the baseline has no median for it, so a missing or empty
+ * baseline fails the run instead of passing unchecked. Metrics, e.g. a throughput, are only reported.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>benchmark.iterations - number of measured iterations of each step, default: 5</li>
+ *     <li>benchmark.tolerance - allowed slowdown of the median against the baseline, default: 0.25 (25%)</li>
+ *     <li>benchmark.update-baseline - replaces the baseline with the results of this run, default: false</li>
+ * </ul>
+ */
+public final class BenchmarkReport {
+
+    private static final Path REPORT_DIR = Path.of("target", "benchmark");
+
+    private static final Path BASELINE_DIR = Path.of("src", "test", "resources", "benchmark");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String benchmark;
+
+    private final String image;
+
+    private final Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+
+    private final Map<String, Double> metrics = new LinkedHashMap<>();
+
+    public BenchmarkReport(String benchmark, String image) {
+        this.benchmark = benchmark;
+        this.image = image;
+    }
+
+    /**
+     * Number of measured iterations of each benchmark step.
+     */
+    public static int iterations() {
+        return Integer.getInteger("benchmark.iterations", 5);
+    }
+
+    public void add(BenchmarkResult result) {
+        results.put(result.name(), result);
+    }
+
+    /**
+     * Adds a value which is not a duration, the unit should be part of the name, e.g. internal-throughput-rps.
+     */
+    public void addMetric(String name, double value) {
+        metrics.put(name, value);
+    }
+
+    /**
+     * Writes the report and returns the steps which regressed against the baseline or have no baseline median.
+     * Steps with a zero baseline median, e.g. a latency below 1 ms, are reported but never regress.
+     * When the baseline is updated, the results of this run become the new baseline and nothing regresses.
+     */
+    public List<String> publish() throws IOException {
+        Path baselineFile = BASELINE_DIR.resolve(benchmark + "-baseline.json");
+        JsonNode baseline = Files.exists(baselineFile) ? MAPPER.readTree(baselineFile.toFile()).path("results")
+                : MAPPER.createObjectNode();
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+        List<String> regressions = new ArrayList<>();
+
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("benchmark", benchmark);
+        report.put("image", image);
+        report.put("timestamp", Instant.now().toString());
+        report.put("unit", "ms");
+        ObjectNode resultsNode = report.putObject("results");
+        ObjectNode comparisonNode = report.putObject("baseline");
+        for (BenchmarkResult result : results.values()) {
+            ObjectNode resultNode = resultsNode.putObject(result.name());
+            result.samples().forEach(resultNode.putArray("samples")::add);
+            resultNode.put("min", result.min());
+            resultNode.put("max", result.max());
+            resultNode.put("mean", result.mean());
+            resultNode.put("median", result.median());
+            resultNode.put("p90", result.p90());
+            resultNode.put("stddev", result.standardDeviation());
+
+            JsonNode baselineMedian = baseline.path(result.name()).path("median");
+            if (!baselineMedian.isNumber()) {
+                regressions.add("%s: no baseline median in %s, record it with -Dbenchmark.update-baseline=true".formatted(
+                        result.name(), baselineFile));
+            } else if (baselineMedian.asDouble() > 0) {
+                double change = result.median() / baselineMedian.asDouble() - 1;
+                ObjectNode stepComparison = comparisonNode.putObject(result.name());
+                stepComparison.put("median", baselineMedian.asDouble());
+                stepComparison.put("change", change);
+                if (change > tolerance) {
+                    regressions.add("%s: median %.0f ms is %.0f%% slower than baseline %.0f ms".formatted(
+                            result.name(), result.median(), change * 100, baselineMedian.asDouble()));
+                }
+            }
+        }
+
+        if (!metrics.isEmpty()) {
+            ObjectNode metricsNode = report.putObject("metrics");
+            metrics.forEach(metricsNode::put);
+        }
+
+        Files.createDirectories(REPORT_DIR);
+        MAPPER.writeValue(REPORT_DIR.resolve(benchmark + ".json").toFile(), report);
+        if (Boolean.getBoolean("benchmark.update-baseline")) {
+            report.remove("baseline");
+            Files.createDirectories(BASELINE_DIR);
+            MAPPER.writeValue(baselineFile.toFile(), report);
+            return List.of();
+        }
+        return regressions;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measured samples of a single benchmark step in milliseconds together with their statistical summary.
+ */
+public record BenchmarkResult(String name, List<Long> samples) {
+
+    public BenchmarkResult {
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("Benchmark %s has no samples".formatted(name));
+        }
+        samples = List.copyOf(samples);
+    }
+
+    /**
+     * Creates the result of the measured durations.
+     */
+    public static BenchmarkResult of(String name, List<Duration> durations) {
+        return new BenchmarkResult(name, durations.stream().map(Duration::toMillis).toList());
+    }
+
+    public long min() {
+        return sorted().getFirst();
+    }
+
+    public long max() {
+        return sorted().getLast();
+    }
+
+    public double mean() {
+        return samples.stream().mapToLong(Long::longValue).average().orElseThrow();
+    }
+
+    public double median() {
+        List<Long> sorted = sorted();
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2.0;
+    }
+
+    /**
+     * 90th percentile using the nearest-rank method.
+     */
+    public long p90() {
+        List<Long> sorted = sorted();
+        return sorted.get((int) Math.ceil(0.9 * sorted.size()) - 1);
+    }
+
+    /**
+     * Sample standard deviation, zero for a single sample.
+     */
+    public double standardDeviation() {
+        if (samples.size() == 1) {
+            return 0;
+        }
+        double mean = mean();
+        double squares = samples.stream().mapToDouble(sample -> Math.pow(sample - mean, 2)).sum();
+        return Math.sqrt(squares / (samples.size() - 1));
+    }
+
+    private List<Long> sorted() {
+        List<Long> sorted = new ArrayList<>(samples);
+        sorted.sort(null);
+        return sorted;
+    }
+
+}
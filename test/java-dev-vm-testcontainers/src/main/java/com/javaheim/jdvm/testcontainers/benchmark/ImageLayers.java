@@ -0,0 +1,65 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Compressed layers of the linux/amd64 image of a reference (e.g. javaheim/java-dev-vm:1.0.0) as stored in its registry,
+ * together with the Dockerfile instruction which created each layer. The manifest and the config are read anonymously
+ * with the {@link RegistryClient}, so only public images are supported.
+ */
+public record ImageLayers(String reference, List<Layer> layers) {
+
+    public ImageLayers {
+        layers = List.copyOf(layers);
+    }
+
+    public record Layer(String digest, long size, String createdBy) {
+    }
+
+    public long size() {
+        return layers.stream().mapToLong(Layer::size).sum();
+    }
+
+    public static ImageLayers fetch(String reference) throws IOException, InterruptedException {
+        RegistryClient registry = RegistryClient.of(reference);
+        JsonNode manifest = registry.manifest().json();
+        JsonNode config = registry.blobJson(manifest.path("config").path("digest").asText());
+
+        // history entries without a layer, e.g. ENV or LABEL, are skipped
+        Iterator<JsonNode> history = config.path("history").iterator();
+        List<Layer> layers = new ArrayList<>();
+        for (JsonNode layer : manifest.path("layers")) {
+            String createdBy = "";
+            while (history.hasNext()) {
+                JsonNode entry = history.next();
+                if (!entry.path("empty_layer").asBoolean()) {
+                    createdBy = entry.path("created_by").asText();
+                    break;
+                }
+            }
+            layers.add(new Layer(layer.path("digest").asText(), layer.path("size").asLong(), createdBy));
+        }
+        return new ImageLayers(reference, layers);
+    }
+
+}
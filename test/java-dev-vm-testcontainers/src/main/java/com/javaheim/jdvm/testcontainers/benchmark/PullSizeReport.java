@@ -0,0 +1,108 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.javaheim.jdvm.testcontainers.benchmark.ImageLayers.Layer;
+
+/**
+ * Markdown report of the compressed bytes a developer pulls when updating from one release to the next one,
+ * written to target/benchmark/pull-size.md. Two numbers are reported for each pair of consecutive releases:
+ * <ul>
+ *     <li>docker - Docker Engine with the overlay2 storage driver pulls every layer after the first changed one,
+ *     because a layer is stored on top of its parent</li>
+ *     <li>containerd - the containerd image store pulls only the layers whose digest it does not have yet</li>
+ * </ul>
+ */
+public final class PullSizeReport {
+
+    private static final Path REPORT_FILE = Path.of("target", "benchmark", "pull-size.md");
+
+    private static final int CREATED_BY_LENGTH = 100;
+
+    private final List<ImageLayers> releases = new ArrayList<>();
+
+    public record Update(String from, String to, long size, long dockerPull, long containerdPull) {
+    }
+
+    public void add(ImageLayers release) {
+        releases.add(release);
+    }
+
+    /**
+     * Writes the report of the releases in the order they were added and returns the update between each pair.
+     */
+    public List<Update> publish() throws IOException {
+        List<Update> updates = new ArrayList<>();
+        StringBuilder report = new StringBuilder("# Pull Size\n");
+        for (int i = 1; i < releases.size(); i++) {
+            ImageLayers from = releases.get(i - 1);
+            ImageLayers to = releases.get(i);
+            Set<String> pulledDigests = from.layers().stream().map(Layer::digest).collect(Collectors.toSet());
+            int firstChanged = firstChangedLayer(from, to);
+            long dockerPull = 0;
+            long containerdPull = 0;
+
+            report.append("\n## %s -> %s\n\n".formatted(from.reference(), to.reference()));
+            report.append("| # | Size | docker | containerd | Created By |\n");
+            report.append("|--:|-----:|:------:|:----------:|------------|\n");
+            for (int layer = 0; layer < to.layers().size(); layer++) {
+                Layer toLayer = to.layers().get(layer);
+                boolean dockerPulls = layer >= firstChanged;
+                boolean containerdPulls = !pulledDigests.contains(toLayer.digest());
+                dockerPull += dockerPulls ? toLayer.size() : 0;
+                containerdPull += containerdPulls ? toLayer.size() : 0;
+                report.append("| %d | %s | %s | %s | `%s` |\n".formatted(layer + 1, mebibytes(toLayer.size()),
+                        dockerPulls ? "pull" : "-", containerdPulls ? "pull" : "-", createdBy(toLayer)));
+            }
+            report.append("\nImage: %s, docker pull: %s, containerd pull: %s\n".formatted(
+                    mebibytes(to.size()), mebibytes(dockerPull), mebibytes(containerdPull)));
+            updates.add(new Update(from.reference(), to.reference(), to.size(), dockerPull, containerdPull));
+        }
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, report);
+        return updates;
+    }
+
+    private static int firstChangedLayer(ImageLayers from, ImageLayers to) {
+        int layer = 0;
+        while (layer < from.layers().size() && layer < to.layers().size()
+                && from.layers().get(layer).digest().equals(to.layers().get(layer).digest())) {
+            layer++;
+        }
+        return layer;
+    }
+
+    private static String mebibytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / 1024.0 / 1024.0);
+    }
+
+    private static String createdBy(Layer layer) {
+        String createdBy = layer.createdBy().replaceFirst("^/bin/(ba)?sh -c ", "").replaceAll("\\s+", " ").replace("|", "\\|")
+                .replace("`", "'").trim();
+        return createdBy.length() > CREATED_BY_LENGTH ? createdBy.substring(0, CREATED_BY_LENGTH - 3) + "..." : createdBy;
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Minimal client of the Registry HTTP API V2 for one repository, e.g. javaheim/java-dev-vm:1.0.0 or
+ * localhost:5000/java-dev-vm:1.0.0. Pulls are authorized with an anonymous token when the registry asks for it,
+ * so only public images can be read. Pushes are supported for local registries without authentication only.
+ */
+public final class RegistryClient {
+
+    /** Media types of manifests and indexes accepted when a manifest is read */
+    public static final String MANIFEST_TYPES = String.join(", ",
+            "application/vnd.oci.image.index.v1+json",
+            "application/vnd.docker.distribution.manifest.list.v2+json",
+            "application/vnd.oci.image.manifest.v1+json",
+            "application/vnd.docker.distribution.manifest.v2+json");
+
+    private static final Pattern CHALLENGE_PARAMETER = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUri;
+
+    private final String repository;
+
+    private final String tag;
+
+    private String token;
+
+    private RegistryClient(String host, String repository, String tag) {
+        boolean local = host.startsWith("localhost") || host.startsWith("127.0.0.1");
+        this.baseUri = "%s://%s/v2/%s/".formatted(local ? "http" : "https", host, repository);
+        this.repository = repository;
+        this.tag = tag;
+    }
+
+    /**
+     * Parses a reference the same way as Docker: a first component without a dot, colon or "localhost" is a Docker Hub
+     * repository, single component Docker Hub repositories are official images.
+     */
+    public static RegistryClient of(String reference) {
+        int tagSeparator = reference.lastIndexOf(':');
+        if (tagSeparator < reference.lastIndexOf('/')) {
+            throw new IllegalArgumentException("Reference %s has no tag".formatted(reference));
+        }
+        String name = reference.substring(0, tagSeparator);
+        String tag = reference.substring(tagSeparator + 1);
+        int firstSlash = name.indexOf('/');
+        String firstComponent = firstSlash < 0 ? "" : name.substring(0, firstSlash);
+        if (firstComponent.contains(".") || firstComponent.contains(":") || firstComponent.equals("localhost")) {
+            return new RegistryClient(firstComponent, name.substring(firstSlash + 1), tag);
+        }
+        return new RegistryClient("registry-1.docker.io", firstSlash < 0 ? "library/" + name : name, tag);
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Reads the manifest of the linux/amd64 image of the tag, an index is resolved to the manifest of the platform.
+     */
+    public Manifest manifest() throws IOException, InterruptedException {
+        Manifest manifest = manifest(tag);
+        if (manifest.json().has("manifests")) {
+            // attestation manifests of an index have the unknown/unknown platform
+            for (JsonNode descriptor : manifest.json().path("manifests")) {
+                if ("linux".equals(descriptor.path("platform").path("os").asText())
+                        && "amd64".equals(descriptor.path("platform").path("architecture").asText())) {
+                    return manifest(descriptor.path("digest").asText());
+                }
+            }
+            throw new IOException("No linux/amd64 image in %s:%s".formatted(repository, tag));
+        }
+        return manifest;
+    }
+
+    public JsonNode blobJson(String digest) throws IOException, InterruptedException {
+        try (InputStream blob = blob(digest)) {
+            return MAPPER.readTree(blob);
+        }
+    }
+
+    public InputStream blob(String digest) throws IOException, InterruptedException {
+        return get("blobs/" + digest, "*/*", HttpResponse.BodyHandlers.ofInputStream()).body();
+    }
+
+    public boolean hasBlob(String digest) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + "blobs/" + digest))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+        return HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    /**
+     * Uploads a blob in a single request, the stream is closed afterwards.
+     */
+    public void pushBlob(String digest, InputStream content) throws IOException, InterruptedException {
+        try (content) {
+            HttpResponse<Void> upload = expect(HTTP_CLIENT.send(HttpRequest.newBuilder(URI.create(baseUri + "blobs/uploads/"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding()), 202);
+            URI location = URI.create(baseUri).resolve(upload.headers().firstValue("Location").orElseThrow());
+            URI put = URI.create(location + (location.getQuery() == null ? "?" : "&") + "digest=" + digest);
+            expect(HTTP_CLIENT.send(HttpRequest.newBuilder(put).header("Content-Type", "application/octet-stream")
+                    .PUT(HttpRequest.BodyPublishers.ofInputStream(() -> content)).build(), HttpResponse.BodyHandlers.discarding()), 201);
+        }
+    }
+
+    public void pushManifest(String reference, Manifest manifest) throws IOException, InterruptedException {
+        expect(HTTP_CLIENT.send(HttpRequest.newBuilder(URI.create(baseUri + "manifests/" + reference))
+                .header("Content-Type", manifest.mediaType()).PUT(HttpRequest.BodyPublishers.ofByteArray(manifest.raw())).build(),
+                HttpResponse.BodyHandlers.discarding()), 201);
+    }
+
+    /**
+     * Copies the linux/amd64 image of the tag with its original manifest and blobs, so the compression, e.g. eStargz,
+     * and the digests are preserved. Blobs already present in the target are skipped.
+     */
+    public void copyTo(RegistryClient target) throws IOException, InterruptedException {
+        Manifest manifest = manifest();
+        List<String> digests = new ArrayList<>();
+        manifest.json().path("layers").forEach(layer -> digests.add(layer.path("digest").asText()));
+        digests.add(manifest.json().path("config").path("digest").asText());
+        for (String digest : digests) {
+            if (!target.hasBlob(digest)) {
+                target.pushBlob(digest, blob(digest));
+            }
+        }
+        target.pushManifest(target.tag(), manifest);
+    }
+
+    private Manifest manifest(String reference) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = get("manifests/" + reference, MANIFEST_TYPES, HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode json = MAPPER.readTree(response.body());
+        String mediaType = response.headers().firstValue("Content-Type").orElse(json.path("mediaType").asText());
+        return new Manifest(response.body(), mediaType, json);
+    }
+
+    private <T> HttpResponse<T> get(String path, String accept, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(baseUri + path);
+        HttpResponse<T> response = send(uri, accept, true, bodyHandler);
+        if (response.statusCode() == 401) {
+            token = token(response.headers().firstValue("WWW-Authenticate").orElse(""));
+            response = send(uri, accept, true, bodyHandler);
+        }
+        // blobs are redirected to a storage which rejects the registry token
+        for (int redirects = 0; response.statusCode() / 100 == 3 && redirects < 5; redirects++) {
+            uri = uri.resolve(response.headers().firstValue("Location").orElseThrow());
+            response = send(uri, accept, false, bodyHandler);
+        }
+        return expect(response, 200);
+    }
+
+    private <T> HttpResponse<T> send(URI uri, String accept, boolean authorized, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept", accept);
+        if (authorized && token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return HTTP_CLIENT.send(request.build(), bodyHandler);
+    }
+
+    /**
+     * Requests an anonymous pull token from the realm of the Bearer challenge.
+     */
+    private String token(String challenge) throws IOException, InterruptedException {
+        String realm = null;
+        String service = "";
+        Matcher parameter = CHALLENGE_PARAMETER.matcher(challenge);
+        while (parameter.find()) {
+            switch (parameter.group(1)) {
+                case "realm" -> realm = parameter.group(2);
+                case "service" -> service = parameter.group(2);
+                default -> {
+                }
+            }
+        }
+        if (!challenge.startsWith("Bearer") || realm == null) {
+            throw new IOException("Unsupported authentication challenge of %s: %s".formatted(baseUri, challenge));
+        }
+        URI uri = URI.create("%s?service=%s&scope=repository:%s:pull".formatted(realm, service, repository));
+        HttpResponse<byte[]> response = expect(HTTP_CLIENT.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofByteArray()), 200);
+        JsonNode body = MAPPER.readTree(response.body());
+        return body.has("token") ? body.path("token").asText() : body.path("access_token").asText();
+    }
+
+    private static <T> HttpResponse<T> expect(HttpResponse<T> response, int statusCode) throws IOException {
+        if (response.statusCode() != statusCode) {
+            if (response.body() instanceof InputStream body) {
+                body.close();
+            }
+            throw new IOException("%s %s returned %d".formatted(response.request().method(), response.request().uri(),
+                    response.statusCode()));
+        }
+        return response;
+    }
+
+    /**
+     * Manifest as read from the registry, the raw bytes are kept so a copy has the same digest.
+     */
+    public record Manifest(byte[] raw, String mediaType, JsonNode json) {
+    }
+
+}
@@ -21,12 +21,19 @@ import static com.javaheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.assertj.core.api.AbstractIntegerAssert;
 import org.testcontainers.containers.Container;
 import org.testcontainers.containers.ExecConfig;
 import org.testcontainers.containers.GenericContainer;
 
+import com.javaheim.jdvm.testcontainers.jfr.DockerExecEvent;
+
 /**
  * A utility class for executing shell commands inside a Docker container.
  * Provides a fluent API to configure the shell and command to be executed within a specified container.
@@ -53,12 +60,24 @@ public final class DockerExecutor {
 
         private static final Shell DEFAULT_SHELL = Shell.BASH;
 
+        private static final String ASYNC_PROFILER_LIB = "/opt/async-profiler/lib/libasyncProfiler.so";
+
+        private static final String CONTAINER_PROFILES_DIR = "/tmp/async-profiler/";
+
+        private static final Path HOST_PROFILES_DIR = Path.of("target", "async-profiler");
+
         private final GenericContainer<?> container;
 
         private String command;
 
         private boolean shouldFail;
 
+        private boolean cached;
+
+        private ProfilerEvent profilerEvent;
+
+        private String profileName;
+
         private Steps(GenericContainer<?> container) {
             this.container = container;
             shouldFail = false;
@@ -123,6 +142,30 @@ public final class DockerExecutor {
             return this;
         }
 
+        /**
+         * Marks the command as read-only and deterministic for the image, e.g. a version command or a listing
+         * of an image directory, so its result can be served from the {@link ExecCache} when it is enabled.
+         * Caching is always opt-in, commands reading or changing state created at runtime (e.g. anything under the user
+         * home, which is set up on startup on a volume) must not be marked.
+         */
+        @Override
+        public ExecStep cached() {
+            cached = true;
+            return this;
+        }
+
+        /**
+         * Runs the command with async-profiler attached to every JVM it spawns.
+         * Profiles (JFR) and flame graphs (HTML) of the JVMs which exited with the command
+         * are copied to target/async-profiler/{name}.
+         */
+        @Override
+        public ExecStep profiled(ProfilerEvent event, String name) {
+            profilerEvent = Objects.requireNonNull(event, "Profiler event cannot be null");
+            profileName = Objects.requireNonNull(name, "Profile name cannot be null");
+            return this;
+        }
+
         /**
          * Executes the previously defined shell command inside a container.
          * The command is executed using the bash shell and working directory.
@@ -140,19 +183,129 @@ public final class DockerExecutor {
          */
         @Override
         public String exec(Shell shell) throws IOException, InterruptedException {
+            ExecResult execResult = execResult(shell);
+            assertExitCode(execResult);
+            return shouldFail ? null : execResult.stdout().trim();
+        }
+
+        /**
+         * Executes the previously defined shell command inside a container and extracts a value from its output
+         * in the JVM. The command is executed using the bash shell and working directory.
+         * Ensures that the command exits with a zero exit code and the value is found; otherwise,
+         * an assertion error with the whole result is thrown.
+         */
+        @Override
+        public String exec(OutputExtractor extractor) throws IOException, InterruptedException {
+            return exec(DEFAULT_SHELL, extractor);
+        }
+
+        /**
+         * Executes the previously defined shell command inside a container and extracts a value from its output
+         * in the JVM. The command is executed using the defined shell and working directory.
+         * Ensures that the command exits with a zero exit code and the value is found; otherwise,
+         * an assertion error with the whole result is thrown.
+         */
+        @Override
+        public String exec(Shell shell, OutputExtractor extractor) throws IOException, InterruptedException {
+            Objects.requireNonNull(extractor, "Extractor cannot be null");
+            ExecResult execResult = execResult(shell);
+            assertExitCode(execResult);
+            return execResult.extract(extractor);
+        }
+
+        /**
+         * Executes the previously defined shell command inside a container using the bash shell and working directory.
+         * Returns the stdout, stderr, exit code and duration without checking the exit code.
+         */
+        @Override
+        public ExecResult execResult() throws IOException, InterruptedException {
+            return execResult(DEFAULT_SHELL);
+        }
+
+        /**
+         * Executes the previously defined shell command inside a container using the defined shell and working
+         * directory. Returns the stdout, stderr, exit code and duration without checking the exit code.
+         * Each execution is recorded as a {@link DockerExecEvent} JFR event.
+         * A cached command is served from the {@link ExecCache} when it is enabled, unless it is profiled.
+         */
+        @Override
+        public ExecResult execResult(Shell shell) throws IOException, InterruptedException {
             Objects.requireNonNull(shell, "Shell cannot be null");
+            boolean cacheable = cached && profilerEvent == null && ExecCache.isEnabled();
+            if (cacheable) {
+                Optional<ExecResult> cachedResult = ExecCache.get(container, IMAGE_USER, shell.toString().toLowerCase(), command);
+                if (cachedResult.isPresent()) {
+                    return cachedResult.get();
+                }
+            }
             ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
-                    shell.toString().toLowerCase(), "-i", "-c", command
+                    shell.toString().toLowerCase(), "-i", "-c", profilerEvent == null ? command : profiledCommand()
             }).build();
+            DockerExecEvent event = DockerExecEvent.begin(command, shell.toString().toLowerCase());
+            long start = System.nanoTime();
             Container.ExecResult execResult = container.execInContainer(execConfig);
-            AbstractIntegerAssert<?> assertThatExitCode = assertThat(execResult.getExitCode()).as("\n%s%s",
-                    execResult.getStdout(), execResult.getStderr());
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            event.commit(execResult.getExitCode(), execResult.getStdout(), execResult.getStderr());
+            if (profilerEvent != null) {
+                copyProfiles();
+            }
+            ExecResult result = new ExecResult(command, execResult.getExitCode(), execResult.getStdout(),
+                    execResult.getStderr(), duration);
+            if (cacheable) {
+                ExecCache.put(container, IMAGE_USER, shell.toString().toLowerCase(), result);
+            }
+            return result;
+        }
+
+        /**
+         * Ensures that the command exited with a zero exit code, or a non-zero one when it should fail.
+         */
+        private void assertExitCode(ExecResult execResult) {
+            AbstractIntegerAssert<?> assertThatExitCode = assertThat(execResult.exitCode()).as("\n%s%s",
+                    execResult.stdout(), execResult.stderr());
             if (shouldFail) {
                 assertThatExitCode.isNotZero();
-                return null;
+            } else {
+                assertThatExitCode.isZero();
+            }
+        }
+
+        /**
+         * Prepends the async-profiler agent to JAVA_TOOL_OPTIONS, so each spawned JVM writes its own {pid}.jfr on exit.
+         */
+        private String profiledCommand() {
+            String profileDir = CONTAINER_PROFILES_DIR + profileName;
+            String agent = "-agentpath:%s=start,event=%s,file=%s/%%p.jfr".formatted(
+                    ASYNC_PROFILER_LIB, profilerEvent.toString().toLowerCase(), profileDir);
+            return "rm -rf \"%s\" && mkdir --parents \"%s\" && ".formatted(profileDir, profileDir) +
+                    "export JAVA_TOOL_OPTIONS=\"%s${JAVA_TOOL_OPTIONS:+ ${JAVA_TOOL_OPTIONS}}\"; %s".formatted(agent, command);
+        }
+
+        /**
+         * Converts the recorded profiles to flame graphs with jfrconv and copies both to the host,
+         * replacing the profiles of a previous run with the same name.
+         */
+        private void copyProfiles() throws IOException, InterruptedException {
+            String profileDir = CONTAINER_PROFILES_DIR + profileName;
+            String convert = "cd \"%s\" && for jfr in *.jfr; do [[ -f \"${jfr}\" ]] || continue; ".formatted(profileDir) +
+                    "jfrconv --%s \"${jfr}\" \"${jfr%%.jfr}.html\" > /dev/null && ".formatted(
+                            profilerEvent.toString().toLowerCase()) +
+                    "echo \"${jfr}\" && echo \"${jfr%.jfr}.html\"; done";
+            ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
+                    "bash", "-i", "-c", convert
+            }).build();
+            Container.ExecResult execResult = container.execInContainer(execConfig);
+            assertThat(execResult.getExitCode()).as("\n%s%s", execResult.getStdout(), execResult.getStderr()).isZero();
+            Path hostProfileDir = HOST_PROFILES_DIR.resolve(profileName);
+            Files.createDirectories(hostProfileDir);
+            try (Stream<Path> previousProfiles = Files.list(hostProfileDir)) {
+                for (Path previousProfile : previousProfiles.toList()) {
+                    Files.delete(previousProfile);
+                }
+            }
+            for (String profile : execResult.getStdout().lines().toList()) {
+                container.copyFileFromContainer(profileDir + "/" + profile, hostProfileDir.resolve(profile).toString());
             }
-            assertThatExitCode.isZero();
-            return execResult.getStdout().trim();
         }
 
         /**
@@ -203,10 +356,22 @@ public final class DockerExecutor {
      */
     public interface ExecStep {
 
+        ExecStep cached();
+
+        ExecStep profiled(ProfilerEvent event, String name);
+
         String exec() throws IOException, InterruptedException;
 
         String exec(Shell shell) throws IOException, InterruptedException;
 
+        String exec(OutputExtractor extractor) throws IOException, InterruptedException;
+
+        String exec(Shell shell, OutputExtractor extractor) throws IOException, InterruptedException;
+
+        ExecResult execResult() throws IOException, InterruptedException;
+
+        ExecResult execResult(Shell shell) throws IOException, InterruptedException;
+
         void execShouldFail() throws IOException, InterruptedException;
 
         void execShouldFail(Shell shell) throws IOException, InterruptedException;
@@ -219,6 +384,15 @@ public final class DockerExecutor {
             ZSH
         }
 
+        /**
+         * Represents the async-profiler events available for profiling a command.
+         */
+        enum ProfilerEvent {
+            CPU,
+            ALLOC,
+            WALL
+        }
+
     }
 
 }
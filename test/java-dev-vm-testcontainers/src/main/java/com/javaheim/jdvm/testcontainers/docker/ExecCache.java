@@ -0,0 +1,109 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.docker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * On-disk cache of the results of read-only commands, enabled with -Djdvm.exec-cache=true.
+ * Results are stored in target/exec-cache/{image ID}/{hash of user, shell and command}.json, so they are reused
+ * by the next runs as long as the image of the container did not change. A cache hit has a zero duration
+ * and it is not recorded as a JFR event. Only commands marked as cached by the {@link DockerExecutor} are looked up.
+ */
+final class ExecCache {
+
+    private static final boolean ENABLED = Boolean.getBoolean("jdvm.exec-cache");
+
+    private static final Path CACHE_DIR = Path.of("target", "exec-cache");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ExecCache() {
+        throw new AssertionError();
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static Optional<ExecResult> get(GenericContainer<?> container, String user, String shell, String command) {
+        Path entry = entry(container, user, shell, command);
+        if (!Files.isRegularFile(entry)) {
+            return Optional.empty();
+        }
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(entry.toFile());
+        } catch (IOException e) {
+            // a corrupted entry is executed again and replaced
+            return Optional.empty();
+        }
+        if (!isComplete(node)) {
+            // an entry with missing fields, e.g. an empty file, is treated like a corrupted one
+            return Optional.empty();
+        }
+        return Optional.of(new ExecResult(command, node.get("exitCode").asInt(), node.get("stdout").asText(),
+                node.get("stderr").asText(), Duration.ZERO));
+    }
+
+    static void put(GenericContainer<?> container, String user, String shell, ExecResult execResult) throws IOException {
+        Path entry = entry(container, user, shell, execResult.command());
+        ObjectNode node = MAPPER.createObjectNode()
+                .put("user", user)
+                .put("shell", shell)
+                .put("command", execResult.command())
+                .put("exitCode", execResult.exitCode())
+                .put("stdout", execResult.stdout())
+                .put("stderr", execResult.stderr());
+        Files.createDirectories(entry.getParent());
+        Path temporary = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), node);
+        Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isComplete(JsonNode node) {
+        return node != null && node.path("exitCode").isInt() && node.path("stdout").isTextual()
+                && node.path("stderr").isTextual();
+    }
+
+    private static Path entry(GenericContainer<?> container, String user, String shell, String command) {
+        String imageId = container.getContainerInfo().getImageId().replace("sha256:", "");
+        return CACHE_DIR.resolve(imageId).resolve(sha256(user + "\n" + shell + "\n" + command) + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
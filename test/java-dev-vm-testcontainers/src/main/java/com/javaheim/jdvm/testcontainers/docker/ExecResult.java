@@ -0,0 +1,39 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.docker;
+
+import java.time.Duration;
+
+/**
+ * Result of a shell command executed inside a container by the {@link DockerExecutor}.
+ */
+public record ExecResult(String command, int exitCode, String stdout, String stderr, Duration duration) {
+
+    /**
+     * Extracts a value from the stdout, an assertion error with the whole result is thrown when it is missing.
+     */
+    public String extract(OutputExtractor extractor) {
+        return extractor.extract(stdout).orElseThrow(() -> new AssertionError("Nothing extracted from the output of:\n" + this));
+    }
+
+    @Override
+    public String toString() {
+        return "$ %s\nexit code: %d, duration: %d ms\nstdout:\n%s\nstderr:\n%s".formatted(
+                command, exitCode, duration.toMillis(), stdout, stderr);
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.docker;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.JsonNode;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Extracts a value from the output of a command in the host JVM, so the command inside the container
+ * does not need to be piped through sed, grep or similar tools.
+ * An extractor returns an empty Optional when the output does not contain the value.
+ */
+@FunctionalInterface
+public interface OutputExtractor {
+
+    Optional<String> extract(String output);
+
+    /**
+     * Extracts the whole output without leading and trailing whitespace, unless it is blank.
+     */
+    static OutputExtractor trimmed() {
+        return output -> Optional.of(output.trim()).filter(value -> !value.isEmpty());
+    }
+
+    /**
+     * Extracts the first match of the regex applied to each line (multiline mode): the first capturing group
+     * if the regex has one, the whole match otherwise. Nothing is extracted when the first group did not participate
+     * in the match.
+     */
+    static OutputExtractor regex(String regex) {
+        Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
+        return output -> {
+            Matcher matcher = pattern.matcher(output);
+            if (!matcher.find()) {
+                return Optional.empty();
+            }
+            // an optional group which did not participate in the match is not found
+            return Optional.ofNullable(matcher.groupCount() > 0 ? matcher.group(1) : matcher.group());
+        };
+    }
+
+    /**
+     * Extracts the text value at the JSON pointer, e.g. "/clientVersion/gitVersion".
+     */
+    static OutputExtractor json(String pointer) {
+        ObjectMapper mapper = new ObjectMapper();
+        return output -> {
+            try {
+                JsonNode node = mapper.readTree(output).at(pointer);
+                return node.isMissingNode() || node.isNull() ? Optional.empty() : Optional.of(node.asText());
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        };
+    }
+
+    /**
+     * Extracts the value of the first "key=value" line with the given key. Spaces around the "=" and double quotes
+     * around the value are removed, so it works for /etc/os-release as well as for sysctl output.
+     */
+    static OutputExtractor keyValue(String key) {
+        return regex("^\\s*" + Pattern.quote(key) + "\\s*=\\s*\"?(.*?)\"?\\s*$");
+    }
+
+}
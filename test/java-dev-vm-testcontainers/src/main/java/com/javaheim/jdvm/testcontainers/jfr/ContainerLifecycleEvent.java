@@ -0,0 +1,61 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a container lifecycle phase.
+ */
+@Name("com.javaheim.jdvm.ContainerLifecycle")
+@Label("Container Lifecycle")
+@Category({"Java DEV VM", "Harness"})
+@Description("Start, wait for healthy, snapshot and stop of a container")
+public final class ContainerLifecycleEvent extends Event {
+
+    @Label("Image")
+    private String image;
+
+    @Label("Phase")
+    private String phase;
+
+    /**
+     * Starts timing of the lifecycle phase.
+     */
+    public static ContainerLifecycleEvent begin(String image, Phase phase) {
+        ContainerLifecycleEvent event = new ContainerLifecycleEvent();
+        event.image = image;
+        event.phase = phase.toString().toLowerCase().replace('_', '-');
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Represents the recorded container lifecycle phases.
+     */
+    public enum Phase {
+        START,
+        WAIT_FOR_HEALTHY,
+        SNAPSHOT,
+        STOP
+    }
+
+}
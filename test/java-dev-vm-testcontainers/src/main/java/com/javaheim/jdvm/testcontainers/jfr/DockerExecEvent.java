@@ -0,0 +1,77 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.jfr;
+
+import java.nio.charset.StandardCharsets;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a shell command executed inside a container by the DockerExecutor.
+ */
+@Name("com.javaheim.jdvm.DockerExec")
+@Label("Docker Exec")
+@Category({"Java DEV VM", "Harness"})
+@Description("Shell command executed inside a container")
+public final class DockerExecEvent extends Event {
+
+    @Label("Command")
+    private String command;
+
+    @Label("Shell")
+    private String shell;
+
+    @Label("Exit Code")
+    private int exitCode;
+
+    @Label("Stdout Size")
+    @DataAmount
+    private long stdoutSize;
+
+    @Label("Stderr Size")
+    @DataAmount
+    private long stderrSize;
+
+    /**
+     * Starts timing of the command.
+     */
+    public static DockerExecEvent begin(String command, String shell) {
+        DockerExecEvent event = new DockerExecEvent();
+        event.command = command;
+        event.shell = shell;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing of the command and commits the event with its result.
+     */
+    public void commit(int exitCode, String stdout, String stderr) {
+        end();
+        if (shouldCommit()) {
+            this.exitCode = exitCode;
+            stdoutSize = stdout.getBytes(StandardCharsets.UTF_8).length;
+            stderrSize = stderr.getBytes(StandardCharsets.UTF_8).length;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.stats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.BlkioStatsConfig;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+import com.github.dockerjava.api.model.StatsConfig;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Samples CPU, memory, block I/O and PID counts of a container through the Docker stats API.
+ * Every sample is attributed to the test running at that moment and the report with average and peak usage
+ * per test and for the whole run is written to container-stats.md when the sampler is closed.
+ * The Docker stats stream delivers about one sample per second, so very short tests may have no samples.
+ */
+public final class ContainerStatsSampler implements AutoCloseable {
+
+    private static final String REPORT_FILE = "container-stats.md";
+
+    private static final String SAMPLES_FILE = "container-stats.csv";
+
+    private static final String WHOLE_RUN = "Whole run";
+
+    private final Path reportDir;
+
+    private final ResultCallback.Adapter<Statistics> callback;
+
+    private final List<Sample> samples = new ArrayList<>();
+
+    private String currentTest;
+
+    private ContainerStatsSampler(Path reportDir) {
+        this.reportDir = reportDir;
+        callback = new ResultCallback.Adapter<>() {
+
+            @Override
+            public void onNext(Statistics statistics) {
+                addSample(statistics);
+            }
+
+        };
+    }
+
+    /**
+     * Starts streaming the stats of the running container.
+     */
+    public static ContainerStatsSampler start(GenericContainer<?> container, Path reportDir) {
+        Objects.requireNonNull(container.getContainerId(), "Container must be running");
+        ContainerStatsSampler sampler = new ContainerStatsSampler(reportDir);
+        DockerClientFactory.instance().client().statsCmd(container.getContainerId()).exec(sampler.callback);
+        return sampler;
+    }
+
+    /**
+     * Attributes the following samples to the given test.
+     */
+    public synchronized void startTest(String test) {
+        currentTest = test;
+    }
+
+    /**
+     * Stops attributing samples to the current test.
+     */
+    public synchronized void endTest() {
+        currentTest = null;
+    }
+
+    /**
+     * Stops sampling and writes the report.
+     */
+    @Override
+    public void close() throws IOException {
+        callback.close();
+        writeReport();
+    }
+
+    private synchronized void addSample(Statistics statistics) {
+        samples.add(new Sample(currentTest, cpuPercent(statistics), memoryBytes(statistics.getMemoryStats()),
+                blockBytes(statistics.getBlkioStats(), "read"), blockBytes(statistics.getBlkioStats(), "write"),
+                statistics.getPidsStats() == null ? 0 : Objects.requireNonNullElse(statistics.getPidsStats().getCurrent(), 0L)));
+    }
+
+    /**
+     * CPU usage since the previous sample, computed the same way as the docker stats command (100% = one CPU).
+     */
+    private static double cpuPercent(Statistics statistics) {
+        CpuStatsConfig cpu = statistics.getCpuStats();
+        CpuStatsConfig preCpu = statistics.getPreCpuStats();
+        if (cpu == null || preCpu == null || cpu.getCpuUsage() == null || preCpu.getCpuUsage() == null
+                || cpu.getSystemCpuUsage() == null || preCpu.getSystemCpuUsage() == null) {
+            return 0;
+        }
+        long cpuDelta = cpu.getCpuUsage().getTotalUsage() - preCpu.getCpuUsage().getTotalUsage();
+        long systemDelta = cpu.getSystemCpuUsage() - preCpu.getSystemCpuUsage();
+        if (cpuDelta <= 0 || systemDelta <= 0) {
+            return 0;
+        }
+        long onlineCpus = Objects.requireNonNullElse(cpu.getOnlineCpus(), 1L);
+        return (double) cpuDelta / systemDelta * onlineCpus * 100;
+    }
+
+    /**
+     * Memory usage without the inactive page cache, the same way as the docker stats command.
+     */
+    private static long memoryBytes(MemoryStatsConfig memory) {
+        if (memory == null || memory.getUsage() == null) {
+            return 0;
+        }
+        StatsConfig stats = memory.getStats();
+        long inactiveFile = 0;
+        if (stats != null) {
+            inactiveFile = Objects.requireNonNullElse(stats.getInactiveFile(),
+                    Objects.requireNonNullElse(stats.getTotalInactiveFile(), 0L));
+        }
+        return Math.max(0, memory.getUsage() - inactiveFile);
+    }
+
+    private static long blockBytes(BlkioStatsConfig blkio, String operation) {
+        if (blkio == null || blkio.getIoServiceBytesRecursive() == null) {
+            return 0;
+        }
+        return blkio.getIoServiceBytesRecursive().stream()
+                .filter(entry -> operation.equalsIgnoreCase(entry.getOp()))
+                .mapToLong(BlkioStatEntry::getValue)
+                .sum();
+    }
+
+    private synchronized void writeReport() throws IOException {
+        Map<String, List<Sample>> samplesByTest = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            if (sample.test() != null) {
+                samplesByTest.computeIfAbsent(sample.test(), test -> new ArrayList<>()).add(sample);
+            }
+        }
+        samplesByTest.put(WHOLE_RUN, samples);
+
+        List<String> report = new ArrayList<>(List.of(
+                "## Container Stats",
+                "",
+                "| Test | Samples | CPU avg | CPU peak | Memory avg | Memory peak | Block read | Block write | PIDs peak |",
+                "|------|--------:|--------:|---------:|-----------:|------------:|-----------:|------------:|----------:|"
+        ));
+        samplesByTest.forEach((test, testSamples) -> {
+            if (!testSamples.isEmpty()) {
+                report.add("| %s | %d | %.1f%% | %.1f%% | %s | %s | %s | %s | %d |".formatted(test, testSamples.size(),
+                        average(testSamples, Sample::cpuPercent), peak(testSamples, Sample::cpuPercent),
+                        mebibytes((long) average(testSamples, Sample::memoryBytes)),
+                        mebibytes((long) peak(testSamples, Sample::memoryBytes)),
+                        mebibytes(delta(testSamples, Sample::blockReadBytes)),
+                        mebibytes(delta(testSamples, Sample::blockWriteBytes)),
+                        (long) peak(testSamples, Sample::pids)));
+            }
+        });
+
+        List<String> csv = new ArrayList<>(List.of("test,cpu_percent,memory_bytes,block_read_bytes,block_write_bytes,pids"));
+        for (Sample sample : samples) {
+            csv.add("%s,%.2f,%d,%d,%d,%d".formatted(Objects.requireNonNullElse(sample.test(), ""), sample.cpuPercent(),
+                    sample.memoryBytes(), sample.blockReadBytes(), sample.blockWriteBytes(), sample.pids()));
+        }
+
+        Files.createDirectories(reportDir);
+        Files.write(reportDir.resolve(REPORT_FILE), report);
+        Files.write(reportDir.resolve(SAMPLES_FILE), csv);
+    }
+
+    private static double average(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        return samples.stream().mapToDouble(value).average().orElse(0);
+    }
+
+    private static double peak(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        return samples.stream().mapToDouble(value).max().orElse(0);
+    }
+
+    /**
+     * Block I/O counters are cumulative, so the usage is the difference between the last and the first sample.
+     */
+    private static long delta(List<Sample> samples, ToLongFunction<Sample> value) {
+        return value.applyAsLong(samples.getLast()) - value.applyAsLong(samples.getFirst());
+    }
+
+    private static String mebibytes(long bytes) {
+        return "%.1f MiB".formatted(bytes / 1024.0 / 1024.0);
+    }
+
+    /**
+     * Single sample of the container stats, test is null when no test was running.
+     */
+    private record Sample(String test, double cpuPercent, long memoryBytes, long blockReadBytes, long blockWriteBytes,
+                          long pids) {
+
+    }
+
+}
@@ -18,21 +18,34 @@ package com.javaheim.jdvm.testcontainers;
 
 import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_USER;
 import static com.javaheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+import static com.javaheim.jdvm.testcontainers.docker.OutputExtractor.keyValue;
 import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Year;
-import org.junit.jupiter.api.MethodOrderer;
+import java.util.List;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
 import com.javaheim.jdvm.testcontainers.setup.JavaDevVmContainer;
+import com.javaheim.jdvm.testcontainers.setup.JfrRecordingExtension;
+import com.javaheim.jdvm.testcontainers.setup.LongestFirstMethodOrderer;
+import com.javaheim.jdvm.testcontainers.setup.MutatesJavaDevVm;
+import com.javaheim.jdvm.testcontainers.stats.ContainerStatsSampler;
 
 /**
  * Java DEV VM General Tests
  */
-@TestMethodOrder(MethodOrderer.MethodName.class)
+@TestMethodOrder(LongestFirstMethodOrderer.class)
 public class JavaDevVmTest extends JavaDevVmContainer {
 
     @Test
@@ -75,6 +88,264 @@ public class JavaDevVmTest extends JavaDevVmContainer {
         assertThat(subState).isEqualTo("SubState=running");
     }
 
+    @Test
+    void testJdvmRepositoryCacheService() throws IOException, InterruptedException {
+        String isActive = getJavaDevVmExecutor().run("systemctl is-active jdvm-repository-cache.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String subState = getJavaDevVmExecutor().run("systemctl show -p SubState jdvm-repository-cache.service").exec();
+        assertThat(subState).isEqualTo("SubState=running");
+
+        String repositoryCache = MAVEN.getProperty("docker.bridge.ip") + ":18081";
+        String repositoryCacheUrl = getJavaDevVmExecutor().printenv("JDVM_REPOSITORY_CACHE_URL").exec();
+        assertThat(repositoryCacheUrl).isEqualTo("http://" + repositoryCache);
+
+        String listenAddresses = getJavaDevVmExecutor().run("ss -Hltn \"sport = :18081\" | awk '{ print $4 }'").exec();
+        assertThat(listenAddresses).isEqualTo(repositoryCache);
+
+        String mavenSettingsPath = getJavaDevVmExecutor().symlinkPath("/opt/maven/conf/settings.xml").cached().exec();
+        assertThat(mavenSettingsPath).isEqualTo("/etc/jdvm-config/maven-settings.xml");
+
+        String gradleInitPath = getJavaDevVmExecutor().symlinkPath("/opt/gradle/init.d/jdvm-repository-cache.gradle").cached().exec();
+        assertThat(gradleInitPath).isEqualTo("/etc/jdvm-config/gradle-init.gradle");
+
+        String mavenSettings = getJavaDevVmExecutor().cat("/opt/maven/conf/settings.xml").exec();
+        assertThat(mavenSettings).contains("<name>env.JDVM_REPOSITORY_CACHE_URL</name>");
+    }
+
+    @Test
+    @MutatesJavaDevVm
+    void testJdvmRepositoryCacheWithLocalUpstream() throws IOException, InterruptedException {
+        String artifactPath = "com/javaheim/jdvm/repository-cache-test/1.0/repository-cache-test-1.0.pom";
+        String artifactUrl = "http://%s:18081/%s".formatted(MAVEN.getProperty("docker.bridge.ip"), artifactPath);
+        getJavaDevVmExecutor().run("mkdir --parents \"$(dirname \"/tmp/upstream/%s\")\" && echo \"<project/>\" > \"/tmp/upstream/%s\""
+                .formatted(artifactPath, artifactPath)).exec();
+        getJavaDevVmExecutor().run("sudo systemd-run --unit=jdvm-test-upstream --uid=" + IMAGE_USER +
+                " python3 -m http.server 18082 --bind 127.0.0.1 --directory /tmp/upstream").exec();
+        try {
+            getJavaDevVmExecutor().run("sudo systemctl set-environment JDVM_REPOSITORY_CACHE_UPSTREAM=http://127.0.0.1:18082 " +
+                    "&& sudo systemctl restart jdvm-repository-cache.service").exec();
+
+            String fromUpstream = getJavaDevVmExecutor().run(
+                    "curl -sf --retry 10 --retry-connrefused --retry-delay 1 \"%s\"".formatted(artifactUrl)).exec();
+            assertThat(fromUpstream).isEqualTo("<project/>");
+
+            String stored = getJavaDevVmExecutor().cat("%s/.m2/repository/%s".formatted(USER_HOME, artifactPath)).exec();
+            assertThat(stored).isEqualTo("<project/>");
+
+            getJavaDevVmExecutor().run("sudo systemctl stop jdvm-test-upstream.service").exec();
+            String fromCache = getJavaDevVmExecutor().run("curl -sf \"%s\"".formatted(artifactUrl)).exec();
+            assertThat(fromCache).isEqualTo("<project/>");
+
+            // Nested builds reach it from the default bridge network of the inner Docker daemon, the bundled k3s image has wget
+            getJavaDevVmExecutor().run("sudo systemctl start jdvm-images.service").exec();
+            String fromNestedContainer = getJavaDevVmExecutor().run("docker run --rm --entrypoint wget rancher/k3s:v%s -q -O - \"%s\""
+                    .formatted(MAVEN.getProperty("k3s.version"), artifactUrl)).exec();
+            assertThat(fromNestedContainer).isEqualTo("<project/>");
+        } finally {
+            getJavaDevVmExecutor().run("sudo systemctl stop jdvm-test-upstream.service || true").exec();
+            getJavaDevVmExecutor().run("sudo systemctl unset-environment JDVM_REPOSITORY_CACHE_UPSTREAM " +
+                    "&& sudo systemctl restart jdvm-repository-cache.service").exec();
+            getJavaDevVmExecutor().run("rm -rf \"/tmp/upstream\" \"%s/.m2/repository/com/javaheim/jdvm\"".formatted(
+                    USER_HOME)).exec();
+        }
+    }
+
+    @Test
+    void testJdvmRegistryMirrorService() throws IOException, InterruptedException {
+        String isActive = getJavaDevVmExecutor().run("systemctl is-active jdvm-registry-mirror.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String subState = getJavaDevVmExecutor().run("systemctl show -p SubState jdvm-registry-mirror.service").exec();
+        assertThat(subState).isEqualTo("SubState=running");
+
+        String registryMirror = MAVEN.getProperty("docker.bridge.ip") + ":18083";
+        String mirrors = getJavaDevVmExecutor().run("docker info --format \"{{.RegistryConfig.Mirrors}}\"").exec();
+        assertThat(mirrors).contains("http://" + registryMirror + "/");
+
+        String listenAddresses = getJavaDevVmExecutor().run("ss -Hltn \"sport = :18083\" | awk '{ print $4 }'").exec();
+        assertThat(listenAddresses).isEqualTo(registryMirror);
+    }
+
+    @Test
+    @MutatesJavaDevVm
+    void testJdvmRegistryMirrorWithLocalUpstream() throws IOException, InterruptedException {
+        String image = "testcontainers/ryuk:" + MAVEN.getProperty("testcontainers-ryuk.version");
+        String upstreamImage = "127.0.0.1:18084/" + image;
+        String registryMirror = MAVEN.getProperty("docker.bridge.ip") + ":18083";
+        String manifestUrl = "http://" + registryMirror + "/v2/testcontainers/ryuk/manifests/" +
+                MAVEN.getProperty("testcontainers-ryuk.version");
+        // The bundled image is pushed to a stand-in upstream, so nothing is pulled from Docker Hub
+        getJavaDevVmExecutor().run("sudo systemctl start jdvm-images.service").exec();
+        getJavaDevVmExecutor().run("printf \"version: 0.1\\nstorage:\\n  filesystem:\\n    rootdirectory: /tmp/upstream-registry\\n" +
+                "http:\\n  addr: 127.0.0.1:18084\\n\" > /tmp/upstream-registry.yml").exec();
+        getJavaDevVmExecutor().run("sudo systemd-run --unit=jdvm-test-registry --uid=" + IMAGE_USER +
+                " --setenv=OTEL_TRACES_EXPORTER=none registry serve /tmp/upstream-registry.yml").exec();
+        try {
+            getJavaDevVmExecutor().run(("curl -sf --retry 10 --retry-connrefused --retry-delay 1 http://127.0.0.1:18084/v2/ " +
+                    "&& docker image tag %s %s && docker image push --quiet %s").formatted(image, upstreamImage, upstreamImage)).exec();
+            getJavaDevVmExecutor().run("sudo systemctl set-environment JDVM_REGISTRY_MIRROR_UPSTREAM=http://127.0.0.1:18084 " +
+                    "&& sudo systemctl restart jdvm-registry-mirror.service").exec();
+
+            getJavaDevVmExecutor().run("docker image rm %s %s".formatted(image, upstreamImage)).exec();
+            getJavaDevVmExecutor().run("curl -sf --retry 10 --retry-connrefused --retry-delay 1 http://" + registryMirror + "/v2/ " +
+                    "&& docker image pull --quiet " + image).exec();
+            String cachedRepositories = getJavaDevVmExecutor().run("curl -sf http://" + registryMirror + "/v2/_catalog").exec();
+            assertThat(cachedRepositories).contains("testcontainers/ryuk");
+
+            // Served from the local storage of the mirror once the upstream is gone
+            getJavaDevVmExecutor().run("sudo systemctl stop jdvm-test-registry.service").exec();
+            getJavaDevVmExecutor().run("docker image rm " + image).exec();
+            getJavaDevVmExecutor().run("curl -sf -o /dev/null -H \"Accept: application/vnd.docker.distribution.manifest.v2+json\" " +
+                    manifestUrl).exec();
+            getJavaDevVmExecutor().run("docker image pull --quiet " + image).exec();
+        } finally {
+            getJavaDevVmExecutor().run("sudo systemctl stop jdvm-test-registry.service || true").exec();
+            getJavaDevVmExecutor().run("sudo systemctl unset-environment JDVM_REGISTRY_MIRROR_UPSTREAM " +
+                    "&& sudo systemctl restart jdvm-registry-mirror.service").exec();
+            getJavaDevVmExecutor().run("rm -rf /tmp/upstream-registry /tmp/upstream-registry.yml").exec();
+        }
+    }
+
+    @Test
+    void testJdvmImagesService() throws IOException, InterruptedException {
+        // Blocks until the oneshot service finished loading the bundled images
+        getJavaDevVmExecutor().run("sudo systemctl start jdvm-images.service").exec();
+
+        String isActive = getJavaDevVmExecutor().run("systemctl is-active jdvm-images.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String execMainStatus = getJavaDevVmExecutor().run("systemctl show -p ExecMainStatus jdvm-images.service").exec();
+        assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
+
+        String k3sImage = "rancher/k3s:v" + MAVEN.getProperty("k3s.version");
+        String ryukImage = "testcontainers/ryuk:" + MAVEN.getProperty("testcontainers-ryuk.version");
+        String bundledImages = getJavaDevVmExecutor().run("jdvm-images -l").exec();
+        assertThat(bundledImages).contains(k3sImage, ryukImage,
+                "ghcr.io/k3d-io/k3d-proxy:" + MAVEN.getProperty("k3d.version"),
+                "ghcr.io/k3d-io/k3d-tools:" + MAVEN.getProperty("k3d.version"),
+                "rancher/mirrored-pause:" + MAVEN.getProperty("k3s-pause.version"));
+        assertThat(bundledImages).doesNotContain("bundled");
+
+        String dockerImages = getJavaDevVmExecutor().run("docker image ls --format \"{{.Repository}}:{{.Tag}}\"").exec();
+        assertThat(dockerImages).contains(k3sImage, ryukImage);
+
+        String reload = getJavaDevVmExecutor().run("jdvm-images " + k3sImage).exec();
+        assertThat(reload).contains("already loaded");
+
+        getJavaDevVmExecutor().run("jdvm-images not/bundled:latest").execShouldFail();
+    }
+
+    @Test
+    void testK3dClusterConfig() throws IOException, InterruptedException {
+        String config = getJavaDevVmExecutor().run("cat /etc/jdvm-config/k3d-cluster.yaml").exec();
+        assertThat(config).contains("image: rancher/k3s:v" + MAVEN.getProperty("k3s.version"),
+                "--disable=traefik", "--disable=metrics-server", "http://" + MAVEN.getProperty("docker.bridge.ip") + ":18083");
+
+        String pauseArchive = "/usr/local/share/jdvm-images/mirrored-pause-" + MAVEN.getProperty("k3s-pause.version") + ".tar.zst";
+        getJavaDevVmExecutor().run("test -f " + pauseArchive).exec();
+        assertThat(config).contains(pauseArchive + ":/var/lib/rancher/k3s/agent/images/");
+    }
+
+    @Test
+    void testJfrRecording() throws IOException, InterruptedException {
+        getJavaDevVmExecutor().run("echo \"jfr\"").exec();
+
+        Recording recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(suiteRecording -> JfrRecordingExtension.RECORDING_NAME.equals(suiteRecording.getName()))
+                .findFirst().orElseThrow();
+        assertThat(recording.getState()).isEqualTo(RecordingState.RUNNING);
+
+        Path snapshot = Files.createTempFile("java-dev-vm", ".jfr");
+        try {
+            recording.dump(snapshot);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(snapshot);
+            assertThat(events).anyMatch(event -> "com.javaheim.jdvm.DockerExec".equals(event.getEventType().getName())
+                    && "echo \"jfr\"".equals(event.getString("command")) && "bash".equals(event.getString("shell"))
+                    && event.getInt("exitCode") == 0 && event.getLong("stdoutSize") > 0);
+            assertThat(events).filteredOn(event -> "com.javaheim.jdvm.ContainerLifecycle".equals(event.getEventType().getName()))
+                    .extracting(event -> event.getString("phase")).contains("start", "wait-for-healthy");
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    @Test
+    void testContainerStatsSampler() throws IOException, InterruptedException {
+        Path reportDir = Files.createTempDirectory("container-stats");
+        try (ContainerStatsSampler sampler = ContainerStatsSampler.start(getJavaDevVm(), reportDir)) {
+            sampler.startTest("busy-loop");
+            getJavaDevVmExecutor().run("timeout 3 bash -c 'while :; do :; done' || true").exec();
+            sampler.endTest();
+        }
+
+        List<String> report = Files.readAllLines(reportDir.resolve("container-stats.md"));
+        assertThat(report).anyMatch(line -> line.startsWith("| busy-loop | "))
+                .anyMatch(line -> line.startsWith("| Whole run | "));
+        assertThat(reportDir.resolve("container-stats.csv")).content().startsWith("test,cpu_percent,memory_bytes");
+    }
+
+    @Test
+    @MutatesJavaDevVm
+    void testJdvmHousekeepingService() throws IOException, InterruptedException {
+        String timerEnabled = getJavaDevVmExecutor().run("systemctl is-enabled jdvm-housekeeping.timer").exec();
+        assertThat(timerEnabled).isEqualTo("enabled");
+
+        String timerActive = getJavaDevVmExecutor().run("systemctl is-active jdvm-housekeeping.timer").exec();
+        assertThat(timerActive).isEqualTo("active");
+
+        getJavaDevVmExecutor().run("mkdir --parents ~/.m2/repository/jdvm/old/1.0-SNAPSHOT ~/.m2/repository/jdvm/new/1.0-SNAPSHOT"
+                + " && touch --date=\"60 days ago\" ~/.m2/repository/jdvm/old/1.0-SNAPSHOT").exec();
+
+        String dryRun = getJavaDevVmExecutor().run("jdvm-housekeeping -n").exec();
+        assertThat(dryRun).contains("jdvm/old/1.0-SNAPSHOT").doesNotContain("jdvm/new/1.0-SNAPSHOT");
+        getJavaDevVmExecutor().ls(USER_HOME + "/.m2/repository/jdvm/old/1.0-SNAPSHOT").exec();
+
+        // Blocks until the oneshot service finished
+        getJavaDevVmExecutor().run("sudo systemctl start jdvm-housekeeping.service").exec();
+
+        String execMainStatus = getJavaDevVmExecutor().run("systemctl show -p ExecMainStatus jdvm-housekeeping.service").exec();
+        assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
+
+        String oldSnapshotsDir = getJavaDevVmExecutor().ls(USER_HOME + "/.m2/repository/jdvm/old").exec();
+        assertThat(oldSnapshotsDir).isEmpty();
+
+        String newSnapshotsDir = getJavaDevVmExecutor().ls(USER_HOME + "/.m2/repository/jdvm/new").exec();
+        assertThat(newSnapshotsDir).isEqualTo("1.0-SNAPSHOT");
+
+        String report = getJavaDevVmExecutor().run("jdvm-housekeeping -r").exec();
+        assertThat(report).contains("/var/lib/docker", USER_HOME + "/.m2/repository", "Build Cache");
+    }
+
+    @Test
+    void testBuildOutputMode() throws IOException, InterruptedException {
+        String mavenExtensions = getJavaDevVmExecutor().ls("/opt/maven/lib/ext").exec();
+        assertThat(mavenExtensions).contains("jdvm-build-output.jar");
+
+        String gradleInitPath = getJavaDevVmExecutor().symlinkPath("/opt/gradle/init.d/jdvm-build-output.gradle").cached().exec();
+        assertThat(gradleInitPath).isEqualTo("/etc/jdvm-config/gradle-build-output.gradle");
+
+        // Started without a build output mount, so the build output stays in the projects
+        String buildOutputDir = getJavaDevVmExecutor().run("echo \"${JDVM_BUILD_OUTPUT_DIR-}\"").exec();
+        assertThat(buildOutputDir).isEmpty();
+        getJavaDevVmExecutor().run("test -e /opt/gradle/gradle.properties").execShouldFail();
+    }
+
+    @Test
+    void testPerformanceProfile() throws IOException, InterruptedException {
+        ExecResult sysctl = getJavaDevVmExecutor()
+                .run("sysctl fs.inotify.max_user_watches fs.inotify.max_user_instances vm.max_map_count").execResult();
+        assertThat(Long.parseLong(sysctl.extract(keyValue("fs.inotify.max_user_watches")))).isGreaterThanOrEqualTo(1048576);
+        assertThat(Long.parseLong(sysctl.extract(keyValue("fs.inotify.max_user_instances")))).isGreaterThanOrEqualTo(1024);
+        assertThat(Long.parseLong(sysctl.extract(keyValue("vm.max_map_count")))).isGreaterThanOrEqualTo(262144);
+
+        String defaultLimitNofile = getJavaDevVmExecutor().run("systemctl show --property DefaultLimitNOFILE").exec();
+        assertThat(defaultLimitNofile).isEqualTo("DefaultLimitNOFILE=1048576");
+
+        String launcherLimitNofile = getJavaDevVmExecutor().run("systemctl show --property LimitNOFILE jdvm-launcher.service").exec();
+        assertThat(launcherLimitNofile).isEqualTo("LimitNOFILE=1048576");
+    }
+
     @Test
     void testJdvmLauncherAtHome() throws IOException, InterruptedException {
         CharSequence[] apps = new CharSequence[]{
@@ -107,7 +378,9 @@ public class JavaDevVmTest extends JavaDevVmContainer {
     @Test
     void testJdvmConfig() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
-                "betterfox-policies.json", "betterfox-user.js", "docker-daemon.json", "kitty.conf", "tealdeer-config.toml"
+                "betterfox-policies.json", "betterfox-user.js", "docker-daemon.json", "gradle-build-output.gradle", "gradle-init.gradle",
+                "housekeeping.conf", "k3d-cluster.yaml", "kitty.conf", "maven-settings.xml", "nginx-repository-cache.conf", "performance-profile.conf",
+                "registry-mirror.yml", "tealdeer-config.toml"
         };
         String jdvmConfigDir = getJavaDevVmExecutor().ls("/etc/jdvm-config").exec();
         assertThat(jdvmConfigDir).contains(files).hasLineCount(files.length);
@@ -116,7 +389,7 @@ public class JavaDevVmTest extends JavaDevVmContainer {
     @Test
     void testJdvmTemplatesBase() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
-                "dockerfile-env", "docker-env", "dconf", "env", "p10k.zsh"
+                "build-output-env", "dockerfile-env", "docker-env", "dconf", "env", "jvm-env", "p10k.zsh"
         };
         String jdvmTemplatesBaseDir = getJavaDevVmExecutor().ls("/etc/jdvm-templates/base").exec();
         assertThat(jdvmTemplatesBaseDir).contains(files).hasLineCount(files.length);
@@ -166,6 +439,7 @@ public class JavaDevVmTest extends JavaDevVmContainer {
     }
 
     @Test
+    @MutatesJavaDevVm
     void testDockerEntrypointInitialization() throws IOException, InterruptedException {
         getJavaDevVmExecutor().run("sudo sed -i \"s/^  startSystemd/#&/\" \"/docker-entrypoint.d/docker-entrypoint.sh\"").exec();
         String dockerEntrypointLog = getJavaDevVmExecutor().run("/docker-entrypoint.d/docker-entrypoint.sh").exec();
@@ -177,7 +451,10 @@ public class JavaDevVmTest extends JavaDevVmContainer {
         assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/05-init-oh-my-zsh.sh");
         assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/06-init-jmeter.sh");
         assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/07-save-docker-env-variables.sh");
-        assertThat(dockerEntrypointLog).doesNotContain("[INFO] Running /docker-entrypoint.d/08");
+        assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/08-tune-jvm-defaults.sh");
+        assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/09-apply-performance-profile.sh");
+        assertThat(dockerEntrypointLog).contains("[INFO] Running /docker-entrypoint.d/10-setup-build-output.sh");
+        assertThat(dockerEntrypointLog).doesNotContain("[INFO] Running /docker-entrypoint.d/11");
         assertThat(dockerEntrypointLog).contains("[SUCCESS] Initialization complete");
         assertThat(dockerEntrypointLog).doesNotContain("[STEP] ----- Start systemd -----");
     }
@@ -0,0 +1,84 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_USER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.Locale;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Runs the entrypoint step generating the JVM defaults in containers with different CPU and memory limits
+ * and checks the selected profile. Only the step is executed, not the whole entrypoint, so each case takes seconds.
+ * CPUs are limited to at most 2, so the result does not depend on the number of processors of the host.
+ */
+class JvmDefaultsTest {
+
+    private static final String JVM_ENV_FILE = "/etc/jdvm-templates/base/jvm-env";
+
+    private static final String PRINT_MAX_RAM_PERCENTAGE =
+            "/opt/java/current/bin/java -XX:+PrintFlagsFinal -version 2> /dev/null | grep -w MaxRAMPercentage";
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 2, small, 12.5",
+            "8, 1, small, 12.5",
+            "8, 2, medium, 20",
+            "16, 2, large, 25"
+    })
+    void testJvmProfile(long memoryGiB, long cpus, String profile, String maxRamPercentage) {
+        long memory = memoryGiB * 1024 * 1024 * 1024;
+        // the step caps the cgroup limit with the physical memory, so bigger limits would select a smaller profile
+        assumeTrue(DockerClientFactory.instance().getInfo().getMemTotal() >= memory,
+                "Docker host has less than %d GiB of memory".formatted(memoryGiB));
+
+        String jvmEnv = runTuneJvmDefaults(memory, cpus);
+        assertThat(jvmEnv).contains("export JDVM_JVM_PROFILE=\"%s\"".formatted(profile));
+        assertThat(jvmEnv).contains("export JAVA_TOOL_OPTIONS=\"-XX:MaxRAMPercentage=%s$".formatted(maxRamPercentage));
+        assertThat(jvmEnv).contains("export MAVEN_OPTS=");
+        // the JVM picks up the default, and an option set by the caller still wins over it
+        assertThat(jvmEnv).containsPattern("default: .*MaxRAMPercentage +:?= +%s ".formatted(
+                String.format(Locale.ROOT, "%f", Double.parseDouble(maxRamPercentage)).replace(".", "\\.")));
+        assertThat(jvmEnv).containsPattern("caller: .*MaxRAMPercentage +:?= +50\\.000000 ");
+    }
+
+    private static String runTuneJvmDefaults(long memory, long cpus) {
+        String command = ("sudo -u %1$s bash /docker-entrypoint.d/08-tune-jvm-defaults.sh > /dev/null && cat %2$s"
+                + " && (. %2$s && echo \"default: $(%3$s)\")"
+                + " && (export JAVA_TOOL_OPTIONS=-XX:MaxRAMPercentage=50 && . %2$s && echo \"caller: $(%3$s)\")")
+                .formatted(IMAGE_USER, JVM_ENV_FILE, PRINT_MAX_RAM_PERCENTAGE);
+        try (GenericContainer<?> container = new GenericContainer<>(DockerImageName.parse(IMAGE_TAG))
+                .withCreateContainerCmdModifier(cmd -> {
+                    cmd.withEntrypoint("bash").withCmd("-c", command);
+                    cmd.getHostConfig().withMemory(memory).withNanoCPUs(cpus * 1_000_000_000L);
+                })
+                .withStartupCheckStrategy(new OneShotStartupCheckStrategy().withTimeout(Duration.ofMinutes(1)))) {
+            container.start();
+            return container.getLogs();
+        }
+    }
+
+}
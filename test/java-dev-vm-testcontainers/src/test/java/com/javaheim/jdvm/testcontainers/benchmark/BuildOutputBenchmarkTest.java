@@ -0,0 +1,155 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Volume;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.containers.GenericContainer;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
+
+/**
+ * Benchmark of the build output mode: a generated multi-module Maven project on the projects volume is built
+ * by a container started the same way as restart.sh does, and by a container started with restart.sh -o tmpfs.
+ * Plugins are downloaded by a warm-up build into the shared Maven repository volume, so only the offline
+ * clean package of the project is measured.
+ */
+@Tag("benchmark")
+@Isolated
+class BuildOutputBenchmarkTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("build-output", IMAGE_TAG);
+
+    private static final String BUILD_OUTPUT_DIR = "/mnt/build-output";
+
+    private static final String PROJECT_DIR = USER_HOME + "/projects/jdvm-benchmark";
+
+    private static final int MODULES = 8;
+
+    private static final int CLASSES_PER_MODULE = 150;
+
+    private static final String VOLUMES = BenchmarkContainers.volumesPrefix("build-output");
+
+    private static final GenericContainer<?> VOLUME_JAVA_DEV_VM = javaDevVm("volume", false);
+
+    private static final GenericContainer<?> TMPFS_JAVA_DEV_VM = javaDevVm("tmpfs", true);
+
+    @BeforeAll
+    static void generateProjects() throws IOException, InterruptedException {
+        for (GenericContainer<?> javaDevVm : List.of(VOLUME_JAVA_DEV_VM, TMPFS_JAVA_DEV_VM)) {
+            javaDevVm.start();
+            DockerExecutor.in(javaDevVm).run(generateProjectCommand()).exec();
+            DockerExecutor.in(javaDevVm).run("cd \"%s\" && mvn -B -q package".formatted(PROJECT_DIR)).exec();
+        }
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        BenchmarkContainers.publish(REPORT, List.of(VOLUME_JAVA_DEV_VM, TMPFS_JAVA_DEV_VM),
+                List.of(VOLUMES + "-volume-projects", VOLUMES + "-tmpfs-projects", VOLUMES + "-maven"));
+    }
+
+    @Test
+    void testVolumeBuild() throws IOException, InterruptedException {
+        REPORT.add(BenchmarkResult.of("volume-clean-package", build(VOLUME_JAVA_DEV_VM)));
+
+        String targetDir = DockerExecutor.in(VOLUME_JAVA_DEV_VM).ls(PROJECT_DIR + "/module-1/target").exec();
+        assertThat(targetDir).contains("module-1-1.0.jar");
+    }
+
+    @Test
+    void testTmpfsBuild() throws IOException, InterruptedException {
+        REPORT.add(BenchmarkResult.of("tmpfs-clean-package", build(TMPFS_JAVA_DEV_VM)));
+
+        String targetDir = DockerExecutor.in(TMPFS_JAVA_DEV_VM).ls(BUILD_OUTPUT_DIR + PROJECT_DIR + "/module-1/target").exec();
+        assertThat(targetDir).contains("module-1-1.0.jar");
+        String projectDir = DockerExecutor.in(TMPFS_JAVA_DEV_VM).ls(PROJECT_DIR + "/module-1").exec();
+        assertThat(projectDir).doesNotContain("target");
+        // native libraries extracted to java.io.tmpdir and built binaries are executed from the tmpfs
+        String mountOptions = DockerExecutor.in(TMPFS_JAVA_DEV_VM).run("findmnt --noheadings --output OPTIONS " + BUILD_OUTPUT_DIR).exec();
+        assertThat(mountOptions).doesNotContain("noexec");
+        // GRADLE_OPTS only reaches the client, the daemon gets the temp directory from the installation gradle.properties
+        String gradleProperties = DockerExecutor.in(TMPFS_JAVA_DEV_VM).cat("/opt/gradle/gradle.properties").exec();
+        assertThat(gradleProperties).contains("-Djava.io.tmpdir=%s/.tmp".formatted(BUILD_OUTPUT_DIR));
+    }
+
+    private static List<Duration> build(GenericContainer<?> javaDevVm) throws IOException, InterruptedException {
+        List<Duration> builds = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            ExecResult build = DockerExecutor.in(javaDevVm).run("cd \"%s\" && mvn -B -q -o clean package".formatted(PROJECT_DIR))
+                    .execResult();
+            assertThat(build.exitCode()).as("\n%s", build).isZero();
+            builds.add(build.duration());
+        }
+        return builds;
+    }
+
+    private static GenericContainer<?> javaDevVm(String name, boolean buildOutputMode) {
+        GenericContainer<?> javaDevVm = BenchmarkContainers.javaDevVm(IMAGE_TAG)
+                .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withBinds(
+                        new Bind(VOLUMES + "-" + name + "-projects", new Volume(USER_HOME + "/projects")),
+                        new Bind(VOLUMES + "-maven", new Volume(USER_HOME + "/.m2/repository"))));
+        // same mount as restart.sh -o tmpfs
+        return buildOutputMode ? javaDevVm.withTmpFs(Map.of(BUILD_OUTPUT_DIR, "rw,exec")) : javaDevVm;
+    }
+
+    /**
+     * Generates a project with modules of classes with a few methods each, so compilation writes many small files.
+     */
+    private static String generateProjectCommand() {
+        String modulePom = "<project><modelVersion>4.0.0</modelVersion><parent><groupId>jdvm</groupId>"
+                + "<artifactId>jdvm-benchmark</artifactId><version>1.0</version></parent>"
+                + "<artifactId>module-${module}</artifactId></project>";
+        String rootPom = "<project><modelVersion>4.0.0</modelVersion><groupId>jdvm</groupId>"
+                + "<artifactId>jdvm-benchmark</artifactId><version>1.0</version><packaging>pom</packaging>"
+                + "<properties><maven.compiler.release>21</maven.compiler.release>"
+                + "<project.build.sourceEncoding>UTF-8</project.build.sourceEncoding></properties>"
+                + "<modules>${modules}</modules></project>";
+        String javaClass = "package jdvm.m${module};\\n\\npublic class C${class} {\\n"
+                + "    private int value = ${class};\\n"
+                + "    public int value() { return value; }\\n"
+                + "    public String name() { return \\\"C${class}\\\" + value; }\\n"
+                + "    public java.util.List<String> names() { return java.util.List.of(name(), name().repeat(2)); }\\n}\\n";
+        return String.join(" && ",
+                "rm -rf \"%s\" && mkdir --parents \"%s\" && cd \"%s\"".formatted(PROJECT_DIR, PROJECT_DIR, PROJECT_DIR),
+                "modules=\"\"",
+                "for module in $(seq 1 %d); do".formatted(MODULES)
+                        + " modules+=\"<module>module-${module}</module>\""
+                        + " && mkdir --parents \"module-${module}/src/main/java/jdvm/m${module}\""
+                        + " && echo \"%s\" > \"module-${module}/pom.xml\"".formatted(modulePom)
+                        + " && for class in $(seq 1 %d); do".formatted(CLASSES_PER_MODULE)
+                        + " printf \"%s\" > \"module-${module}/src/main/java/jdvm/m${module}/C${class}.java\";".formatted(javaClass)
+                        + " done; done",
+                "echo \"%s\" > pom.xml".formatted(rootPom));
+    }
+
+}
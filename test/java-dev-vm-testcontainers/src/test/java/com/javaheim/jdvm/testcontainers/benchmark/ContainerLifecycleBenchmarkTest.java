@@ -0,0 +1,164 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Volume;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+
+/**
+ * Benchmark of the image lifecycle: docker run to healthy with empty (cold) and populated (warm) volumes,
+ * time to the first successful exec and docker stop. The volumes are mounted the same way as restart.sh does.
+ * The benchmark is isolated from parallel tests, so the measured containers do not compete for resources.
+ */
+@Tag("benchmark")
+@Isolated
+class ContainerLifecycleBenchmarkTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final WaitStrategy HEALTHY = Wait.forHealthcheck().withStartupTimeout(STARTUP_TIMEOUT);
+
+    private static final WaitStrategy NO_WAIT = new AbstractWaitStrategy() {
+
+        @Override
+        protected void waitUntilReady() {
+        }
+
+    };
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("container-lifecycle", IMAGE_TAG);
+
+    private static final String WARM_VOLUMES = BenchmarkContainers.volumesPrefix("warm");
+
+    @BeforeAll
+    static void populateWarmVolumes() {
+        GenericContainer<?> javaDevVm = javaDevVm(WARM_VOLUMES, HEALTHY);
+        javaDevVm.start();
+        stop(javaDevVm);
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        BenchmarkContainers.publish(REPORT, List.of(), volumes(WARM_VOLUMES));
+    }
+
+    @Test
+    void testColdStart() {
+        List<Duration> coldStarts = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            String volumes = BenchmarkContainers.volumesPrefix("cold");
+            GenericContainer<?> javaDevVm = javaDevVm(volumes, HEALTHY);
+            try {
+                coldStarts.add(measure(javaDevVm::start));
+            } finally {
+                javaDevVm.stop();
+                BenchmarkContainers.removeVolumes(volumes(volumes));
+            }
+        }
+        REPORT.add(BenchmarkResult.of("cold-start", coldStarts));
+    }
+
+    @Test
+    void testWarmStartAndStop() {
+        List<Duration> warmStarts = new ArrayList<>();
+        List<Duration> stops = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            GenericContainer<?> javaDevVm = javaDevVm(WARM_VOLUMES, HEALTHY);
+            warmStarts.add(measure(javaDevVm::start));
+            stops.add(stop(javaDevVm));
+        }
+        REPORT.add(BenchmarkResult.of("warm-start", warmStarts));
+        REPORT.add(BenchmarkResult.of("stop", stops));
+    }
+
+    @Test
+    void testFirstExec() throws InterruptedException {
+        List<Duration> firstExecs = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            GenericContainer<?> javaDevVm = javaDevVm(WARM_VOLUMES, NO_WAIT);
+            long start = System.nanoTime();
+            javaDevVm.start();
+            execUntilSuccessful(javaDevVm);
+            firstExecs.add(Duration.ofNanos(System.nanoTime() - start));
+            stop(javaDevVm);
+        }
+        REPORT.add(BenchmarkResult.of("first-exec", firstExecs));
+    }
+
+    private static GenericContainer<?> javaDevVm(String volumesPrefix, WaitStrategy waitStrategy) {
+        return BenchmarkContainers.javaDevVm(IMAGE_TAG)
+                .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withBinds(
+                        new Bind(volumesPrefix + "-home", new Volume(USER_HOME)),
+                        new Bind(volumesPrefix + "-maven", new Volume(USER_HOME + "/.m2/repository")),
+                        new Bind(volumesPrefix + "-docker", new Volume("/var/lib/docker"))))
+                .waitingFor(waitStrategy);
+    }
+
+    private static List<String> volumes(String volumesPrefix) {
+        return List.of(volumesPrefix + "-home", volumesPrefix + "-maven", volumesPrefix + "-docker");
+    }
+
+    private static Duration measure(Runnable step) {
+        long start = System.nanoTime();
+        step.run();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Measures docker stop (SIGTERM with a grace period), unlike GenericContainer.stop() which kills the container.
+     */
+    private static Duration stop(GenericContainer<?> javaDevVm) {
+        Duration stop = measure(() -> DockerClientFactory.instance().client().stopContainerCmd(javaDevVm.getContainerId()).exec());
+        javaDevVm.stop();
+        return stop;
+    }
+
+    private static void execUntilSuccessful(GenericContainer<?> javaDevVm) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                DockerExecutor.in(javaDevVm).run("true").exec();
+                return;
+            } catch (AssertionError | IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new AssertionError("No successful exec within " + STARTUP_TIMEOUT, e);
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import com.github.dockerjava.api.exception.NotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.PullPolicy;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Benchmark of docker run to healthy, including the pull, of the regular image and of the eStargz variant built with
+ * the estargz profile. Both are copied with their original layers from their registry to a local stand-in registry,
+ * so the network to the registry does not blur the comparison. The Docker host has to use the stargz snapshotter
+ * (containerd image store with "storage-driver": "stargz"), otherwise the benchmark is skipped.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>estargz.regular-image - regular image in a registry, default: the image under test</li>
+ *     <li>estargz.image - eStargz variant in a registry, default: the image under test with the -estargz suffix</li>
+ * </ul>
+ */
+@Tag("benchmark")
+@Isolated
+class EstargzBenchmarkTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("estargz", IMAGE_TAG);
+
+    private static final int REGISTRY_PORT = 5000;
+
+    private static final GenericContainer<?> REGISTRY = new GenericContainer<>(DockerImageName.parse("registry:" + MAVEN.getProperty("registry.version")))
+            .withExposedPorts(REGISTRY_PORT)
+            .waitingFor(Wait.forHttp("/v2/").forPort(REGISTRY_PORT));
+
+    @BeforeAll
+    static void copyImagesToRegistry() throws IOException, InterruptedException {
+        assumeTrue("stargz".equals(DockerClientFactory.instance().getInfo().getDriver()),
+                "Docker host does not use the stargz snapshotter");
+        REGISTRY.start();
+        RegistryClient.of(System.getProperty("estargz.regular-image", IMAGE_TAG)).copyTo(RegistryClient.of(localImage("regular")));
+        RegistryClient.of(System.getProperty("estargz.image", IMAGE_TAG + "-estargz")).copyTo(RegistryClient.of(localImage("estargz")));
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        if (!REGISTRY.isRunning()) {
+            return;
+        }
+        BenchmarkContainers.publish(REPORT, List.of(REGISTRY), List.of());
+    }
+
+    @Test
+    void testTimeToHealthy() {
+        List<Duration> regularStarts = new ArrayList<>();
+        List<Duration> estargzStarts = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            regularStarts.add(pullAndStart(localImage("regular")));
+            estargzStarts.add(pullAndStart(localImage("estargz")));
+        }
+        REPORT.add(BenchmarkResult.of("regular-time-to-healthy", regularStarts));
+        REPORT.add(BenchmarkResult.of("estargz-time-to-healthy", estargzStarts));
+    }
+
+    /**
+     * The image is removed first, so every start pulls it: completely for the regular image, lazily for eStargz.
+     */
+    private static Duration pullAndStart(String image) {
+        try {
+            DockerClientFactory.instance().client().removeImageCmd(image).withForce(true).exec();
+        } catch (NotFoundException e) {
+            // first iteration
+        }
+        try (GenericContainer<?> javaDevVm = BenchmarkContainers.javaDevVm(image, Duration.ofMinutes(10))
+                .withImagePullPolicy(PullPolicy.alwaysPull())) {
+            long start = System.nanoTime();
+            javaDevVm.start();
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static String localImage(String variant) {
+        return "localhost:%d/%s:%s".formatted(REGISTRY.getMappedPort(REGISTRY_PORT), MAVEN.getProperty("image.name"), variant);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Volume;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.containers.GenericContainer;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
+
+/**
+ * Benchmark of the k3d cluster lifecycle inside Java DEV VM: cluster create, node ready, rollout of a deployment
+ * and cluster delete, with the k3d defaults and with /etc/jdvm-config/k3d-cluster.yaml. Both clusters start from
+ * the bundled images and run the bundled pause image as the workload, so nothing of the measured path is pulled.
+ * The iterations of both configs alternate, so they share the same state of the Docker volume and of the host.
+ */
+@Tag("benchmark")
+@Isolated
+class K3dLifecycleBenchmarkTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("k3d-lifecycle", IMAGE_TAG);
+
+    private static final String CLUSTER = "jdvm-benchmark";
+
+    private static final String PAUSE_IMAGE = "rancher/mirrored-pause:" + MAVEN.getProperty("k3s-pause.version");
+
+    private static final String PAUSE_ARCHIVE = "mirrored-pause-" + MAVEN.getProperty("k3s-pause.version") + ".tar.zst";
+
+    private static final String DEFAULT_CREATE = ("k3d cluster create %s --image rancher/k3s:v%s --wait --timeout 300s "
+            + "--volume /usr/local/share/jdvm-images/%s:/var/lib/rancher/k3s/agent/images/%s@server:*")
+            .formatted(CLUSTER, MAVEN.getProperty("k3s.version"), PAUSE_ARCHIVE, PAUSE_ARCHIVE);
+
+    private static final String TUNED_CREATE = "k3d cluster create %s --config /etc/jdvm-config/k3d-cluster.yaml".formatted(CLUSTER);
+
+    private static final String DOCKER_VOLUME = BenchmarkContainers.volumesPrefix("k3d");
+
+    private static final GenericContainer<?> JAVA_DEV_VM = BenchmarkContainers.javaDevVm(IMAGE_TAG)
+            // k3s needs overlay2, same mount as restart.sh
+            .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withBinds(new Bind(DOCKER_VOLUME, new Volume("/var/lib/docker"))));
+
+    @BeforeAll
+    static void loadImages() throws IOException, InterruptedException {
+        JAVA_DEV_VM.start();
+        // Blocks until the oneshot service finished loading the bundled images
+        DockerExecutor.in(JAVA_DEV_VM).run("sudo systemctl start jdvm-images.service").exec();
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        BenchmarkContainers.publish(REPORT, List.of(JAVA_DEV_VM), List.of(DOCKER_VOLUME));
+    }
+
+    @Test
+    void testClusterLifecycle() throws IOException, InterruptedException {
+        ClusterLifecycle defaults = new ClusterLifecycle("default", DEFAULT_CREATE);
+        ClusterLifecycle tuned = new ClusterLifecycle("tuned", TUNED_CREATE);
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            defaults.run();
+            tuned.run();
+        }
+        defaults.report();
+        tuned.report();
+
+        BenchmarkResult defaultStart = BenchmarkResult.of("default-start", defaults.starts);
+        BenchmarkResult tunedStart = BenchmarkResult.of("tuned-start", tuned.starts);
+        assertThat(tunedStart.median()).as("Median of cluster create to rolled out deployment with k3d-cluster.yaml")
+                .isLessThan(defaultStart.median());
+    }
+
+    /**
+     * Phases of one cluster config, the start is the sum of create, ready and deploy.
+     */
+    private static final class ClusterLifecycle {
+
+        private final String name;
+
+        private final String createCommand;
+
+        private final List<Duration> creates = new ArrayList<>();
+
+        private final List<Duration> readies = new ArrayList<>();
+
+        private final List<Duration> deploys = new ArrayList<>();
+
+        private final List<Duration> deletes = new ArrayList<>();
+
+        private final List<Duration> starts = new ArrayList<>();
+
+        private ClusterLifecycle(String name, String createCommand) {
+            this.name = name;
+            this.createCommand = createCommand;
+        }
+
+        private void run() throws IOException, InterruptedException {
+            try {
+                Duration create = phase(createCommand);
+                // Node objects are registered shortly after the API server is up
+                Duration ready = phase("until kubectl get nodes --output name | grep -q node; do sleep 0.2; done "
+                        + "&& kubectl wait --for=condition=Ready node --all --timeout=300s");
+                Duration deploy = phase(("kubectl create deployment pause --image=%s "
+                        + "&& kubectl rollout status deployment/pause --timeout=300s").formatted(PAUSE_IMAGE));
+                creates.add(create);
+                readies.add(ready);
+                deploys.add(deploy);
+                starts.add(create.plus(ready).plus(deploy));
+            } finally {
+                deletes.add(phase("k3d cluster delete " + CLUSTER));
+            }
+        }
+
+        private void report() {
+            REPORT.add(BenchmarkResult.of(name + "-create", creates));
+            REPORT.add(BenchmarkResult.of(name + "-ready", readies));
+            REPORT.add(BenchmarkResult.of(name + "-deploy", deploys));
+            REPORT.add(BenchmarkResult.of(name + "-delete", deletes));
+            REPORT.add(BenchmarkResult.of(name + "-start", starts));
+        }
+
+        private static Duration phase(String command) throws IOException, InterruptedException {
+            ExecResult execResult = DockerExecutor.in(JAVA_DEV_VM).run(command).execResult();
+            assertThat(execResult.exitCode()).as("\n%s", execResult).isZero();
+            return execResult.duration();
+        }
+
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.containers.GenericContainer;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
+
+/**
+ * Smoke benchmark of the bundled Kafka with the default JDK of Java DEV VM: a single-node KRaft broker is started
+ * from /opt/kafka/config/server.properties and the bundled kafka-producer-perf-test.sh and kafka-consumer-perf-test.sh
+ * run with a fixed record size against it. A warm-up run fills the page cache and JIT compiles the broker first.
+ */
+@Tag("benchmark")
+@Isolated
+class KafkaBenchmarkTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("kafka", IMAGE_TAG);
+
+    private static final String KAFKA_DIR = "/tmp/jdvm-benchmark-kafka";
+
+    private static final String BOOTSTRAP_SERVER = "localhost:9092";
+
+    private static final String TOPIC = "jdvm-benchmark";
+
+    private static final int PARTITIONS = 3;
+
+    private static final int RECORD_SIZE = 1024;
+
+    private static final int RECORDS = 200_000;
+
+    private static final Pattern PRODUCER_SUMMARY = Pattern.compile("^(\\d+) records sent, ([\\d.]+) records/sec "
+            + "\\(([\\d.]+) MB/sec\\), ([\\d.]+) ms avg latency, ([\\d.]+) ms max latency, "
+            + "(\\d+) ms 50th, (\\d+) ms 95th, (\\d+) ms 99th", Pattern.MULTILINE);
+
+    private static final GenericContainer<?> JAVA_DEV_VM = BenchmarkContainers.javaDevVm(IMAGE_TAG);
+
+    @BeforeAll
+    static void startBroker() throws IOException, InterruptedException {
+        JAVA_DEV_VM.start();
+        // log.dirs is overridden by the last occurrence, the script logs go to LOG_DIR as /opt/kafka is read-only
+        kafka(String.join(" && ",
+                "mkdir --parents %1$s && cp /opt/kafka/config/server.properties %1$s/server.properties",
+                "echo \"log.dirs=%1$s/data\" >> %1$s/server.properties",
+                "kafka-storage.sh format --standalone --cluster-id \"$(kafka-storage.sh random-uuid)\" --config %1$s/server.properties",
+                "kafka-server-start.sh -daemon %1$s/server.properties",
+                "timeout 120 bash -c 'until kafka-topics.sh --bootstrap-server %2$s --list > /dev/null 2>&1; do sleep 1; done'",
+                "kafka-topics.sh --bootstrap-server %2$s --create --topic %3$s --partitions %4$d --replication-factor 1")
+                .formatted(KAFKA_DIR, BOOTSTRAP_SERVER, TOPIC, PARTITIONS));
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        BenchmarkContainers.publish(REPORT, List.of(JAVA_DEV_VM), List.of());
+    }
+
+    @Test
+    void testProduceAndConsume() throws IOException, InterruptedException {
+        produce(RECORDS / 10);
+        consume(RECORDS / 10);
+        List<Produced> produced = new ArrayList<>();
+        List<Consumed> consumed = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            produced.add(produce(RECORDS));
+            consumed.add(consume(RECORDS));
+        }
+
+        // the duration of a run is the inverse of the throughput, so throughput regressions are compared to the baseline
+        addStep("produce", produced, result -> Math.round(RECORDS * 1000 / result.recordsPerSecond()));
+        addStep("produce-latency-avg", produced, result -> Math.round(result.avgLatency()));
+        addStep("produce-latency-p50", produced, Produced::p50Latency);
+        addStep("produce-latency-p95", produced, Produced::p95Latency);
+        addStep("produce-latency-p99", produced, Produced::p99Latency);
+        addStep("consume-fetch", consumed, Consumed::fetchMillis);
+        addMetric("produce-throughput-rps", produced, Produced::recordsPerSecond);
+        addMetric("produce-throughput-mbps", produced, Produced::megabytesPerSecond);
+        addMetric("consume-throughput-rps", consumed, Consumed::recordsPerSecond);
+        addMetric("consume-throughput-mbps", consumed, Consumed::megabytesPerSecond);
+
+        String kafkaVersion = kafka("kafka-topics.sh --version");
+        assertThat(kafkaVersion).startsWith(MAVEN.getProperty("kafka.version"));
+    }
+
+    private static Produced produce(int records) throws IOException, InterruptedException {
+        String output = kafka(("kafka-producer-perf-test.sh --topic %s --num-records %d --record-size %d --throughput -1 "
+                + "--producer-props bootstrap.servers=%s acks=1").formatted(TOPIC, records, RECORD_SIZE, BOOTSTRAP_SERVER));
+        Matcher summary = PRODUCER_SUMMARY.matcher(output);
+        assertThat(summary.find()).as("Producer summary in\n%s", output).isTrue();
+        assertThat(Long.parseLong(summary.group(1))).as("Records sent").isEqualTo(records);
+        return new Produced(Double.parseDouble(summary.group(2)), Double.parseDouble(summary.group(3)),
+                Double.parseDouble(summary.group(4)), Long.parseLong(summary.group(6)), Long.parseLong(summary.group(7)),
+                Long.parseLong(summary.group(8)));
+    }
+
+    /**
+     * Every run joins a new consumer group, so it reads the topic from the beginning.
+     */
+    private static Consumed consume(int records) throws IOException, InterruptedException {
+        String output = kafka("kafka-consumer-perf-test.sh --bootstrap-server %s --topic %s --messages %d --timeout 60000"
+                .formatted(BOOTSTRAP_SERVER, TOPIC, records));
+        List<String> lines = output.lines().toList();
+        int headerIndex = lines.indexOf(lines.stream().filter(line -> line.startsWith("start.time")).findFirst()
+                .orElseThrow(() -> new AssertionError("Consumer summary in\n" + output)));
+        List<String> header = Arrays.asList(lines.get(headerIndex).split(",\\s*"));
+        String[] values = lines.get(headerIndex + 1).split(",\\s*");
+        assertThat(Long.parseLong(values[header.indexOf("data.consumed.in.nMsg")])).as("Records consumed").isEqualTo(records);
+        return new Consumed(Long.parseLong(values[header.indexOf("fetch.time.ms")]),
+                Double.parseDouble(values[header.indexOf("fetch.nMsg.sec")]),
+                Double.parseDouble(values[header.indexOf("fetch.MB.sec")]));
+    }
+
+    private static <T> void addStep(String name, List<T> results, Function<T, Long> millis) {
+        REPORT.add(new BenchmarkResult(name, results.stream().map(millis).toList()));
+    }
+
+    private static <T> void addMetric(String name, List<T> results, ToDoubleFunction<T> value) {
+        REPORT.addMetric(name, results.stream().mapToDouble(value).average().orElseThrow());
+    }
+
+    private static String kafka(String command) throws IOException, InterruptedException {
+        ExecResult execResult = DockerExecutor.in(JAVA_DEV_VM).run("export LOG_DIR=%s/logs && %s".formatted(KAFKA_DIR, command))
+                .execResult();
+        assertThat(execResult.exitCode()).as("\n%s", execResult).isZero();
+        return execResult.stdout();
+    }
+
+    private record Produced(double recordsPerSecond, double megabytesPerSecond, double avgLatency, long p50Latency,
+                            long p95Latency, long p99Latency) {
+    }
+
+    private record Consumed(long fetchMillis, double recordsPerSecond, double megabytesPerSecond) {
+    }
+
+}
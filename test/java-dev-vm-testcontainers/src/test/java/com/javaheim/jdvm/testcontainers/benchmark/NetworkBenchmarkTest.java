@@ -0,0 +1,253 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
+
+/**
+ * Smoke benchmark of the network path of Java DEV VM: nginx inside the container serves a static payload on port 80,
+ * which restart.sh publishes, and a generated JMeter plan is run in non-GUI mode against it twice, from inside the
+ * container over the loopback and from a container in the host network through the mapped port.
+ * The second path covers the port publishing of Docker (NAT or docker-proxy), as used by a browser on the host.
+ * Latencies and the load duration are read from the JTL results, so the JVM startup of JMeter is not measured.
+ */
+@Tag("benchmark")
+@Isolated
+class NetworkBenchmarkTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("network", IMAGE_TAG);
+
+    private static final int HTTP_PORT = 80;
+
+    private static final int THREADS = 16;
+
+    private static final int LOOPS = 500;
+
+    private static final int PAYLOAD_BYTES = 64 * 1024;
+
+    private static final String BENCHMARK_DIR = "/tmp/jdvm-benchmark-network";
+
+    private static final String PLAN = BENCHMARK_DIR + "/plan.jmx";
+
+    private static final String NGINX_CONFIG = """
+            worker_processes auto;
+            pid %1$s/nginx.pid;
+            error_log stderr warn;
+            events {
+                worker_connections 1024;
+            }
+            http {
+                access_log off;
+                sendfile on;
+                server {
+                    listen %2$d;
+                    root %1$s/www;
+                }
+            }
+            """.formatted(BENCHMARK_DIR, HTTP_PORT);
+
+    private static final GenericContainer<?> JAVA_DEV_VM = BenchmarkContainers.javaDevVm(IMAGE_TAG)
+            .withExposedPorts(HTTP_PORT);
+
+    @BeforeAll
+    static void startHttpServer() throws IOException, InterruptedException {
+        JAVA_DEV_VM.start();
+        DockerExecutor.in(JAVA_DEV_VM).run("mkdir --parents %1$s/www && head --bytes %2$d /dev/urandom > %1$s/www/payload"
+                .formatted(BENCHMARK_DIR, PAYLOAD_BYTES)).exec();
+        JAVA_DEV_VM.copyFileToContainer(Transferable.of(NGINX_CONFIG), BENCHMARK_DIR + "/nginx.conf");
+        JAVA_DEV_VM.copyFileToContainer(Transferable.of(plan()), PLAN);
+        DockerExecutor.in(JAVA_DEV_VM).run("sudo nginx -c %1$s/nginx.conf && curl -sf -o /dev/null http://127.0.0.1:%2$d/payload"
+                .formatted(BENCHMARK_DIR, HTTP_PORT)).exec();
+    }
+
+    @AfterAll
+    static void publishReport() throws IOException {
+        BenchmarkContainers.publish(REPORT, List.of(JAVA_DEV_VM), List.of());
+    }
+
+    @Test
+    void testInternal() throws IOException, InterruptedException {
+        runInternal(LOOPS / 10);
+        List<LoadResult> results = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            results.add(runInternal(LOOPS));
+        }
+        report("internal", results);
+    }
+
+    @Test
+    void testMappedPort() {
+        runFromHost(LOOPS / 10);
+        List<LoadResult> results = new ArrayList<>();
+        for (int i = 0; i < BenchmarkReport.iterations(); i++) {
+            results.add(runFromHost(LOOPS));
+        }
+        report("mapped-port", results);
+    }
+
+    private static LoadResult runInternal(int loops) throws IOException, InterruptedException {
+        ExecResult execResult = DockerExecutor.in(JAVA_DEV_VM)
+                .run(jmeterCommand("jmeter", "127.0.0.1", HTTP_PORT, loops, BENCHMARK_DIR + "/results.jtl")).execResult();
+        assertThat(execResult.exitCode()).as("\n%s", execResult).isZero();
+        return LoadResult.parse(execResult.stdout());
+    }
+
+    /**
+     * JMeter of the same image runs in the host network, so requests enter Java DEV VM through the mapped port.
+     */
+    private static LoadResult runFromHost(int loops) {
+        String command = jmeterCommand("JAVA_HOME=/opt/java/current /opt/jmeter/bin/jmeter",
+                "127.0.0.1", JAVA_DEV_VM.getMappedPort(HTTP_PORT), loops, "/tmp/results.jtl");
+        try (GenericContainer<?> jmeter = new GenericContainer<>(DockerImageName.parse(IMAGE_TAG))
+                .withNetworkMode("host")
+                .withCopyToContainer(Transferable.of(plan()), PLAN)
+                .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("bash").withCmd("-c", command))
+                .withStartupCheckStrategy(new OneShotStartupCheckStrategy().withTimeout(Duration.ofMinutes(5)))) {
+            jmeter.start();
+            return LoadResult.parse(jmeter.getLogs());
+        }
+    }
+
+    private static String jmeterCommand(String jmeter, String host, int port, int loops, String results) {
+        return ("rm -f %5$s && %1$s -n -j /dev/null -t %6$s -l %5$s -Jjmeter.save.saveservice.output_format=csv "
+                + "-Jhost=%2$s -Jport=%3$d -Jthreads=%7$d -Jloops=%4$d > /dev/null && cat %5$s")
+                .formatted(jmeter, host, port, loops, results, PLAN, THREADS);
+    }
+
+    private static void report(String path, List<LoadResult> results) {
+        REPORT.add(new BenchmarkResult(path + "-load", results.stream().map(LoadResult::loadMillis).toList()));
+        REPORT.add(new BenchmarkResult(path + "-latency-median", results.stream().map(result -> result.latency(0.5)).toList()));
+        REPORT.add(new BenchmarkResult(path + "-latency-p90", results.stream().map(result -> result.latency(0.9)).toList()));
+        REPORT.add(new BenchmarkResult(path + "-latency-p99", results.stream().map(result -> result.latency(0.99)).toList()));
+        REPORT.addMetric(path + "-throughput-rps", results.stream().mapToDouble(LoadResult::throughput).average().orElseThrow());
+        for (LoadResult result : results) {
+            assertThat(result.requests()).as("Requests of %s", path).isEqualTo(THREADS * LOOPS);
+            assertThat(result.errors()).as("Failed requests of %s", path).isZero();
+        }
+    }
+
+    /**
+     * Thread group of {@link #THREADS} clients requesting the payload with keep-alive, host, port, threads and loops
+     * are JMeter properties, so the same plan serves both network paths.
+     */
+    private static String plan() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <jmeterTestPlan version="1.2" properties="5.0">
+                  <hashTree>
+                    <TestPlan guiclass="TestPlanGui" testclass="TestPlan" testname="jdvm-network">
+                      <elementProp name="TestPlan.user_defined_variables" elementType="Arguments">
+                        <collectionProp name="Arguments.arguments"/>
+                      </elementProp>
+                    </TestPlan>
+                    <hashTree>
+                      <ThreadGroup guiclass="ThreadGroupGui" testclass="ThreadGroup" testname="clients">
+                        <stringProp name="ThreadGroup.num_threads">${__P(threads)}</stringProp>
+                        <stringProp name="ThreadGroup.ramp_time">0</stringProp>
+                        <stringProp name="ThreadGroup.on_sample_error">continue</stringProp>
+                        <elementProp name="ThreadGroup.main_controller" elementType="LoopController"
+                                     guiclass="LoopControlPanel" testclass="LoopController">
+                          <stringProp name="LoopController.loops">${__P(loops)}</stringProp>
+                          <boolProp name="LoopController.continue_forever">false</boolProp>
+                        </elementProp>
+                      </ThreadGroup>
+                      <hashTree>
+                        <HTTPSamplerProxy guiclass="HttpTestSampleGui" testclass="HTTPSamplerProxy" testname="payload">
+                          <elementProp name="HTTPsampler.Arguments" elementType="Arguments">
+                            <collectionProp name="Arguments.arguments"/>
+                          </elementProp>
+                          <stringProp name="HTTPSampler.domain">${__P(host)}</stringProp>
+                          <stringProp name="HTTPSampler.port">${__P(port)}</stringProp>
+                          <stringProp name="HTTPSampler.protocol">http</stringProp>
+                          <stringProp name="HTTPSampler.path">/payload</stringProp>
+                          <stringProp name="HTTPSampler.method">GET</stringProp>
+                          <boolProp name="HTTPSampler.use_keepalive">true</boolProp>
+                        </HTTPSamplerProxy>
+                        <hashTree/>
+                      </hashTree>
+                    </hashTree>
+                  </hashTree>
+                </jmeterTestPlan>
+                """;
+    }
+
+    /**
+     * Samples of one JMeter run read from the CSV results, lines which are not samples (e.g. JVM warnings) are skipped.
+     */
+    private record LoadResult(List<Long> latencies, int errors, long loadMillis) {
+
+        private static LoadResult parse(String jtl) {
+            List<String> header = null;
+            List<Long> latencies = new ArrayList<>();
+            int errors = 0;
+            long firstStart = Long.MAX_VALUE;
+            long lastEnd = Long.MIN_VALUE;
+            for (String line : jtl.lines().toList()) {
+                String[] columns = line.split(",", -1);
+                if (line.startsWith("timeStamp,")) {
+                    header = Arrays.asList(columns);
+                } else if (header != null && columns.length >= header.size() && columns[0].matches("\\d+")) {
+                    long start = Long.parseLong(columns[header.indexOf("timeStamp")]);
+                    long elapsed = Long.parseLong(columns[header.indexOf("elapsed")]);
+                    latencies.add(elapsed);
+                    errors += Boolean.parseBoolean(columns[header.indexOf("success")]) ? 0 : 1;
+                    firstStart = Math.min(firstStart, start);
+                    lastEnd = Math.max(lastEnd, start + elapsed);
+                }
+            }
+            assertThat(latencies).as("Samples in JMeter results\n%s", jtl.lines().limit(20).toList()).isNotEmpty();
+            latencies.sort(null);
+            return new LoadResult(latencies, errors, Math.max(lastEnd - firstStart, 1));
+        }
+
+        private int requests() {
+            return latencies.size();
+        }
+
+        /**
+         * Latency percentile in milliseconds using the nearest-rank method.
+         */
+        private long latency(double percentile) {
+            return latencies.get((int) Math.ceil(percentile * latencies.size()) - 1);
+        }
+
+        private double throughput() {
+            return requests() * 1000.0 / loadMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the bytes pulled between consecutive releases published to the registry, given as a comma-separated list
+ * of tags in -Dpull-report.tags, e.g. -Dpull-report.tags=1.0.0,1.1.0,1.2.0. Skipped without the property.
+ */
+@Tag("benchmark")
+class PullSizeReportTest {
+
+    private static final String REPOSITORY = MAVEN.getProperty("image.namespace") + "/" + MAVEN.getProperty("image.name");
+
+    @Test
+    void testPullSize() throws IOException, InterruptedException {
+        String tags = System.getProperty("pull-report.tags", "");
+        assumeTrue(tags.contains(","), "Set at least two tags in -Dpull-report.tags");
+
+        PullSizeReport report = new PullSizeReport();
+        for (String tag : tags.split(",")) {
+            report.add(ImageLayers.fetch(REPOSITORY + ":" + tag.trim()));
+        }
+        List<PullSizeReport.Update> updates = report.publish();
+
+        assertThat(updates).hasSize(tags.split(",").length - 1);
+        for (PullSizeReport.Update update : updates) {
+            assertThat(update.containerdPull()).as("%s -> %s", update.from(), update.to())
+                    .isLessThanOrEqualTo(update.dockerPull());
+            assertThat(update.dockerPull()).isLessThanOrEqualTo(update.size());
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.benchmark;
+
+import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+
+/**
+ * Records the image files read by the startup of Java DEV VM and a first session, in the order they were first read,
+ * as the prioritized files of the eStargz variant (nerdctl --estargz-record-in format). Image files have their
+ * access time at or below their modification time (SOURCE_DATE_EPOCH), so relatime updates it on the first read.
+ * The record is written to target/estargz/startup-files.jsonl, with -Destargz.update-record=true it replaces the one
+ * used by the estargz profile of java-dev-vm-docker.
+ */
+@Tag("benchmark")
+@Isolated
+class StartupFilesRecordTest {
+
+    private static final Path RECORD_FILE = Path.of("target", "estargz", "startup-files.jsonl");
+
+    private static final Path PROFILE_RECORD_FILE = Path.of("..", "..", "src", "java-dev-vm-docker", "src", "main", "estargz",
+            "startup-files.jsonl");
+
+    /** Commands of a first session, after the terminal is opened */
+    private static final List<String> FIRST_SESSION = List.of(
+            "java -version", "mvn -B -v", "gradle --version --quiet", "docker info", "git --version");
+
+    /** Bundled images are loaded in the background with the lowest priority, prefetching them would delay the startup */
+    private static final String EXCLUDED_PATHS = "! -path \"./usr/local/share/jdvm-images/*\"";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void testRecordStartupFiles() throws IOException, InterruptedException {
+        try (GenericContainer<?> javaDevVm = BenchmarkContainers.javaDevVm(IMAGE_TAG)) {
+            javaDevVm.start();
+            for (String command : FIRST_SESSION) {
+                DockerExecutor.in(javaDevVm).run(command + " > /dev/null").exec();
+            }
+
+            long startedAt = Instant.parse(javaDevVm.getContainerInfo().getState().getStartedAt()).getEpochSecond();
+            // files created or changed by the startup are not in the image and are skipped by the modification time
+            String files = DockerExecutor.in(javaDevVm).run(("cd / && sudo find . -xdev -type f -newerat @%1$d ! -newermt @%1$d %2$s "
+                    + "-printf \"%%A@ %%P\\n\" | sort -n | cut -d \" \" -f 2-").formatted(startedAt, EXCLUDED_PATHS)).exec();
+            List<String> paths = files.lines().filter(path -> !path.isBlank()).toList();
+            assertThat(paths).as("Files read by the startup").isNotEmpty()
+                    .anyMatch(path -> path.startsWith("opt/java/"));
+
+            String record = paths.stream().map(path -> MAPPER.createObjectNode().put("path", path).toString())
+                    .collect(Collectors.joining("\n", "", "\n"));
+            Path recordFile = Boolean.getBoolean("estargz.update-record") ? PROFILE_RECORD_FILE : RECORD_FILE;
+            Files.createDirectories(recordFile.getParent());
+            Files.writeString(recordFile, record);
+        }
+    }
+
+}
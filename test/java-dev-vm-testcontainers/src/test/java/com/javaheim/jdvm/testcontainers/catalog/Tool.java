@@ -0,0 +1,116 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.catalog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.javaheim.jdvm.testcontainers.docker.OutputExtractor;
+
+/**
+ * An entry of the {@link ToolCatalog} describing what is expected from a tool installed in the JavaDevVm image.
+ * Provides a fluent API to declare the executables with their paths, the bash completion entries,
+ * the SDKMAN candidate the tool must not be installed as and the version commands.
+ */
+public final class Tool {
+
+    private final String name;
+
+    private final Map<String, String> executables = new LinkedHashMap<>();
+
+    private final List<String> bashCompletions = new ArrayList<>();
+
+    private final List<String> notSdkmanCandidates = new ArrayList<>();
+
+    private final List<Version> versions = new ArrayList<>();
+
+    private Tool(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts the declaration of the tool with the given display name.
+     */
+    public static Tool named(String name) {
+        return new Tool(Objects.requireNonNull(name, "Name cannot be null"));
+    }
+
+    /**
+     * Expects the executable to be found on the PATH at the given path.
+     */
+    public Tool executable(String executable, String path) {
+        executables.put(Objects.requireNonNull(executable, "Executable cannot be null"),
+                Objects.requireNonNull(path, "Path cannot be null"));
+        return this;
+    }
+
+    /**
+     * Expects the entries in /etc/bash_completion.d.
+     */
+    public Tool bashCompletion(String... entries) {
+        bashCompletions.addAll(List.of(entries));
+        return this;
+    }
+
+    /**
+     * Expects the tool not to be installed as the SDKMAN candidate, because it is installed in /opt instead.
+     */
+    public Tool notSdkmanCandidate(String candidate) {
+        notSdkmanCandidates.add(Objects.requireNonNull(candidate, "Candidate cannot be null"));
+        return this;
+    }
+
+    /**
+     * Expects the value extracted from the output of the command to be the expected version.
+     */
+    public Tool version(String command, OutputExtractor extractor, String expected) {
+        versions.add(new Version(Objects.requireNonNull(command, "Command cannot be null"),
+                Objects.requireNonNull(extractor, "Extractor cannot be null"),
+                Objects.requireNonNull(expected, "Expected version cannot be null")));
+        return this;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, String> executables() {
+        return executables;
+    }
+
+    List<String> bashCompletions() {
+        return bashCompletions;
+    }
+
+    List<String> notSdkmanCandidates() {
+        return notSdkmanCandidates;
+    }
+
+    List<Version> versions() {
+        return versions;
+    }
+
+    /**
+     * A version command with the extractor of the version from its output.
+     */
+    record Version(String command, OutputExtractor extractor, String expected) {
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.catalog;
+
+import static com.javaheim.jdvm.testcontainers.docker.OutputExtractor.json;
+import static com.javaheim.jdvm.testcontainers.docker.OutputExtractor.regex;
+import static com.javaheim.jdvm.testcontainers.docker.OutputExtractor.trimmed;
+import static com.javaheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+
+import java.util.List;
+
+/**
+ * Catalog of the tools installed in the JavaDevVm image, turned into version tests by the {@link ToolCatalogEngine}.
+ * Checks specific to a single tool, e.g. its directories or configuration, stay in the VersionsTest.
+ */
+public final class ToolCatalog {
+
+    public static final List<Tool> TOOLS = List.of(
+            Tool.named("java-dev-vm")
+                    .version("cat /etc/versions/%s.version".formatted(MAVEN.getProperty("image.name")), trimmed(),
+                            MAVEN.getProperty("image.version")),
+            Tool.named("ubuntu")
+                    .version("cat /etc/os-release", regex("^VERSION=\"([^ \"]+)"), MAVEN.getProperty("ubuntu.version")),
+            Tool.named("kitty")
+                    .version("kitty --version", regex("kitty (\\S+)"), MAVEN.getProperty("kitty.version"))
+                    .version("kitten --version", regex("kitten (\\S+)"), MAVEN.getProperty("kitty.version")),
+            Tool.named("tmux")
+                    .executable("tmux", "/usr/bin/tmux")
+                    .version("tmux -V", regex("tmux (.+)"), "3.5a"),
+            Tool.named("firefox")
+                    .executable("firefox", "/usr/local/bin/firefox")
+                    .version("firefox --version", regex("Firefox (\\S+)"), MAVEN.getProperty("firefox.version")),
+            Tool.named("git")
+                    .executable("git", "/usr/bin/git")
+                    .bashCompletion("git-prompt")
+                    .version("git version", regex("git version (.+)"), MAVEN.getProperty("git.version")),
+            Tool.named("git-filter-repo")
+                    .executable("git-filter-repo", "/usr/local/bin/git-filter-repo")
+                    .version("cat /etc/versions/git-filter-repo.version", trimmed(),
+                            MAVEN.getProperty("git-filter-repo.version")),
+            Tool.named("git-lfs")
+                    .executable("git-lfs", "/usr/local/bin/git-lfs")
+                    .version("git lfs version", regex("git-lfs/(\\S+)"), MAVEN.getProperty("git-lfs.version")),
+            Tool.named("github-cli")
+                    .executable("gh", "/usr/local/bin/gh")
+                    .bashCompletion("gh")
+                    .version("gh --version", regex("gh version (\\S+)"), MAVEN.getProperty("github-cli.version")),
+            Tool.named("jbang")
+                    .executable("jbang", "/opt/jbang/bin/jbang")
+                    .notSdkmanCandidate("jbang")
+                    .version("jbang version", trimmed(), MAVEN.getProperty("jbang.version")),
+            Tool.named("jmeter")
+                    .executable("jmeter", "/opt/jmeter/bin/jmeter")
+                    .notSdkmanCandidate("jmeter")
+                    .version("jmeter -n --version -j /dev/null", regex("^.* (\\d\\S*)$"), MAVEN.getProperty("jmeter.version")),
+            Tool.named("jreleaser")
+                    .executable("jreleaser", "/opt/jreleaser/bin/jreleaser")
+                    .notSdkmanCandidate("jreleaser")
+                    .version("jreleaser --version", regex("^.*jreleaser.* (\\S+)$"), MAVEN.getProperty("jreleaser.version")),
+            Tool.named("gradle")
+                    .executable("gradle", "/opt/gradle/bin/gradle")
+                    .notSdkmanCandidate("gradle")
+                    .version("gradle --version", regex("Gradle (\\d[^!\\s]*)"), MAVEN.getProperty("gradle.version")),
+            Tool.named("maven")
+                    .executable("mvn", "/opt/maven/bin/mvn")
+                    .notSdkmanCandidate("maven")
+                    .version("mvn -B -v", regex("Apache Maven (\\S+)"), MAVEN.getProperty("mvn.version")),
+            Tool.named("spring-boot-cli")
+                    .executable("spring", "/opt/springboot/bin/spring")
+                    .notSdkmanCandidate("springboot")
+                    .version("spring --version", regex("v(\\d\\S*)"), MAVEN.getProperty("spring-boot-cli.version")),
+            Tool.named("async-profiler")
+                    .executable("asprof", "/opt/async-profiler/bin/asprof")
+                    .executable("jfrconv", "/opt/async-profiler/bin/jfrconv")
+                    .version("asprof --version", regex("profiler (\\S+)"), MAVEN.getProperty("async-profiler.version")),
+            Tool.named("kafka")
+                    .executable("kafka-topics.sh", "/opt/kafka/bin/kafka-topics.sh")
+                    .version("ls -1A /opt/kafka/libs", regex("^kafka-server-(\\d\\S*)\\.jar$"), MAVEN.getProperty("kafka.version")),
+            Tool.named("node")
+                    .executable("node", "/opt/node/bin/node")
+                    .version("node --version", regex("v(\\S+)"), MAVEN.getProperty("node.version")),
+            Tool.named("npm")
+                    .executable("npm", "/opt/node/bin/npm")
+                    .executable("npx", "/opt/node/bin/npx")
+                    .bashCompletion("npm")
+                    .version("npm --version", trimmed(), MAVEN.getProperty("npm.version"))
+                    .version("npx --version", trimmed(), MAVEN.getProperty("npm.version")),
+            Tool.named("pnpm")
+                    .executable("pnpm", "/opt/node/bin/pnpm")
+                    .executable("pnpx", "/opt/node/bin/pnpx")
+                    .bashCompletion("pnpm")
+                    .version("pnpm --version", trimmed(), MAVEN.getProperty("pnpm.version")),
+            Tool.named("yarn")
+                    .executable("yarn", "/opt/node/bin/yarn")
+                    .executable("yarnpkg", "/opt/node/bin/yarnpkg")
+                    .version("yarn --version", trimmed(), MAVEN.getProperty("yarn.version"))
+                    .version("yarnpkg --version", trimmed(), MAVEN.getProperty("yarn.version")),
+            Tool.named("gulp-cli")
+                    .executable("gulp", "/opt/node/bin/gulp")
+                    .version("gulp --version", regex("^.*CLI.*: (\\S+)$"), MAVEN.getProperty("gulp-cli.version")),
+            Tool.named("python")
+                    .executable("python3", "/usr/bin/python3")
+                    .version("python3 --version", regex("Python (\\S+)"), "3.13.3"),
+            Tool.named("uv")
+                    .executable("uv", "/usr/local/bin/uv")
+                    .executable("uvx", "/usr/local/bin/uvx")
+                    .version("uv --version", regex("uv (\\S+)"), MAVEN.getProperty("uv.version")),
+            Tool.named("go")
+                    .executable("go", "/opt/go/bin/go")
+                    .version("go version", regex("go version go(\\S+)"), MAVEN.getProperty("go.version")),
+            Tool.named("containerd")
+                    .executable("containerd", "/usr/bin/containerd")
+                    .version("containerd --version", regex("containerd\\.io (\\S+)"), MAVEN.getProperty("containerd.io.version")),
+            Tool.named("docker")
+                    .executable("docker", "/usr/bin/docker")
+                    .bashCompletion("docker")
+                    .version("docker version --format \"{{.Client.Version}}\"", trimmed(), MAVEN.getProperty("docker.version"))
+                    .version("docker version --format \"{{.Server.Version}}\"", trimmed(), MAVEN.getProperty("docker.version")),
+            Tool.named("docker-buildx")
+                    .version("docker buildx version", regex("buildx v(\\S+)"), MAVEN.getProperty("docker-buildx.version")),
+            Tool.named("docker-compose")
+                    .version("docker compose version --short", trimmed(), MAVEN.getProperty("docker-compose.version")),
+            Tool.named("docker-scout")
+                    .version("docker scout version", regex("^version: v(\\S+)"), MAVEN.getProperty("docker-scout.version")),
+            Tool.named("dive")
+                    .executable("dive", "/usr/local/bin/dive")
+                    .version("dive --version", regex("^.* (\\S+)$"), MAVEN.getProperty("dive.version")),
+            Tool.named("hadolint")
+                    .executable("hadolint", "/usr/local/bin/hadolint")
+                    .version("hadolint --version", regex("^.* (\\S+)$"), MAVEN.getProperty("hadolint.version")),
+            Tool.named("slim")
+                    .executable("mint", "/usr/local/bin/mint")
+                    .executable("mint-sensor", "/usr/local/bin/mint-sensor")
+                    .executable("slim", "/usr/local/bin/slim")
+                    .executable("slim-sensor", "/usr/local/bin/slim-sensor")
+                    .version("slim --version", regex("version [^|]*\\|[^|]*\\|.\\.([^|]*)\\|"), "1.42.2"),
+            Tool.named("kubectl")
+                    .executable("kubectl", "/usr/local/bin/kubectl")
+                    .bashCompletion("kubectl")
+                    .version("kubectl version --client --output=json", json("/clientVersion/gitVersion"),
+                            "v" + MAVEN.getProperty("kubectl.version")),
+            Tool.named("kubectl-krew")
+                    .executable("kubectl-krew", "/opt/krew/bin/kubectl-krew")
+                    .version("kubectl krew version", regex("^GitTag\\s+v(\\S+)"), MAVEN.getProperty("kubectl-krew.version")),
+            Tool.named("k3d")
+                    .executable("k3d", "/usr/local/bin/k3d")
+                    .bashCompletion("k3d")
+                    .version("k3d version", regex("k3d version v(\\S+)"), MAVEN.getProperty("k3d.version"))
+                    .version("k3d version", regex("k3s version v(\\S+)"), MAVEN.getProperty("k3s.version")),
+            Tool.named("helm")
+                    .executable("helm", "/usr/local/bin/helm")
+                    .bashCompletion("helm")
+                    .version("helm version --template=\"{{.Version}}\"", regex("v(\\S+)"), MAVEN.getProperty("helm.version")),
+            Tool.named("registry")
+                    .executable("registry", "/usr/local/bin/registry")
+                    .version("registry --version", regex(" v(\\d+\\.\\d+\\.\\d+)"), MAVEN.getProperty("registry.version"))
+    );
+
+    private ToolCatalog() {
+        throw new AssertionError();
+    }
+
+}
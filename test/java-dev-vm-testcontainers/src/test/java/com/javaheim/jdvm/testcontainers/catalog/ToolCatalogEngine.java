@@ -0,0 +1,134 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.catalog;
+
+import static com.javaheim.jdvm.testcontainers.docker.OutputExtractor.keyValue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicTest;
+import org.testcontainers.containers.GenericContainer;
+
+import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.docker.ExecResult;
+
+/**
+ * Turns the {@link ToolCatalog} into dynamic tests, one dynamic container per tool.
+ * All probes are planned before the first test runs: identical commands are executed once, e.g. a single
+ * ls of /etc/bash_completion.d and a single batched command -v for all executables, and the probes run concurrently
+ * on virtual threads, at most one per available processor. The dynamic tests only assert on the probe results.
+ * The container is captured when planning, so the tests do not depend on the thread they are executed on.
+ * Probes are read-only, so they are served from the exec cache when it is enabled with -Djdvm.exec-cache=true.
+ */
+public final class ToolCatalogEngine {
+
+    private static final String BASH_COMPLETION_DIR = "/etc/bash_completion.d";
+
+    private static final String SDKMAN_CANDIDATES_DIR = "/opt/sdkman/candidates";
+
+    private final GenericContainer<?> container;
+
+    private final Semaphore permits = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    private final Map<String, CompletableFuture<ExecResult>> probes = new ConcurrentHashMap<>();
+
+    public ToolCatalogEngine(GenericContainer<?> container) {
+        this.container = container;
+    }
+
+    /**
+     * Starts all probes of the tools and returns their dynamic tests.
+     */
+    public Stream<DynamicContainer> plan(List<Tool> tools) {
+        String executablePaths = "for executable in %s; do echo \"${executable}=$(command -v \"${executable}\")\"; done".formatted(
+                tools.stream().flatMap(tool -> tool.executables().keySet().stream()).distinct()
+                        .collect(Collectors.joining(" ")));
+        return tools.stream().map(tool -> dynamicContainer(tool.name(), tests(tool, executablePaths))).toList().stream();
+    }
+
+    private List<DynamicTest> tests(Tool tool, String executablePaths) {
+        List<DynamicTest> tests = new ArrayList<>();
+        tool.executables().forEach((executable, path) -> {
+            CompletableFuture<ExecResult> probe = probe(executablePaths);
+            tests.add(dynamicTest("path of " + executable,
+                    () -> assertThat(result(probe).extract(keyValue(executable))).isEqualTo(path)));
+        });
+        if (!tool.bashCompletions().isEmpty()) {
+            CompletableFuture<ExecResult> probe = probe("ls -1A " + BASH_COMPLETION_DIR);
+            tests.add(dynamicTest("bash completion",
+                    () -> assertThat(result(probe).stdout()).contains(tool.bashCompletions())));
+        }
+        if (!tool.notSdkmanCandidates().isEmpty()) {
+            CompletableFuture<ExecResult> probe = probe("ls -1A " + SDKMAN_CANDIDATES_DIR);
+            tests.add(dynamicTest("not an SDKMAN candidate",
+                    () -> assertThat(result(probe).stdout()).doesNotContain(tool.notSdkmanCandidates())));
+        }
+        for (Tool.Version version : tool.versions()) {
+            CompletableFuture<ExecResult> probe = probe(version.command());
+            tests.add(dynamicTest("version: " + version.command(),
+                    () -> assertThat(result(probe).extract(version.extractor())).isEqualTo(version.expected())));
+        }
+        return tests;
+    }
+
+    /**
+     * Starts the command unless the same command was already started.
+     */
+    private CompletableFuture<ExecResult> probe(String command) {
+        return probes.computeIfAbsent(command, key -> CompletableFuture.supplyAsync(() -> execute(command),
+                runnable -> Thread.ofVirtual().start(runnable)));
+    }
+
+    private ExecResult execute(String command) {
+        try {
+            permits.acquire();
+            try {
+                return DockerExecutor.in(container).run(command).cached().execResult();
+            } finally {
+                permits.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Waits for the probe and ensures that its command exited with a zero exit code.
+     */
+    private static ExecResult result(CompletableFuture<ExecResult> probe) {
+        ExecResult result = probe.join();
+        assertThat(result.exitCode()).as("\n%s", result).isZero();
+        return result;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.testcontainers.containers.GenericContainer;
+
+import com.javaheim.jdvm.testcontainers.stats.ContainerStatsSampler;
+
+/**
+ * JUnit extension sampling the resource usage of the JavaDevVm containers during the suite run.
+ * Samples are attributed to the test running in the container and the report is written to target/container-stats
+ * when the suite run ends, before the containers are stopped. With more than one container in the pool
+ * each container has its own report in target/container-stats/java-dev-vm-{index}
+ * and a fork of a test marked with {@link MutatesJavaDevVm} has its own report in target/container-stats/fork-{test}.
+ */
+public class ContainerStatsExtension implements BeforeEachCallback, AfterEachCallback {
+
+    /** Directory of the container stats report */
+    public static final Path REPORT_DIR = Path.of("target", "container-stats");
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        getSampler(context).startTest(testName(context));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        getSampler(context).endTest();
+    }
+
+    /**
+     * Sampler of the container leased by the test, stored in the root context after the suite recording,
+     * so it is closed by JUnit before the recording stops and the containers are stopped.
+     */
+    private static ContainerStatsSampler getSampler(ExtensionContext context) {
+        GenericContainer<?> javaDevVm = JavaDevVmContainer.getJavaDevVm();
+        List<GenericContainer<?>> javaDevVmPool = JavaDevVmContainer.getJavaDevVmPool();
+        int poolIndex = javaDevVmPool.indexOf(javaDevVm);
+        Path reportDir = poolIndex < 0 ? REPORT_DIR.resolve("fork-" + testName(context).replace('#', '-'))
+                : javaDevVmPool.size() == 1 ? REPORT_DIR : REPORT_DIR.resolve("java-dev-vm-" + poolIndex);
+        return context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).getOrComputeIfAbsent(
+                ContainerStatsSampler.class.getName() + reportDir, key -> ContainerStatsSampler.start(javaDevVm, reportDir),
+                ContainerStatsSampler.class);
+    }
+
+    private static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "#" + context.getRequiredTestMethod().getName();
+    }
+
+}
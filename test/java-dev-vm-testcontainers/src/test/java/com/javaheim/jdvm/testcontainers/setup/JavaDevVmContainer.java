@@ -19,38 +19,75 @@ package com.javaheim.jdvm.testcontainers.setup;
 import static com.javaheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
 import com.github.dockerjava.api.model.Volume;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategyTarget;
 import org.testcontainers.shaded.org.apache.commons.lang3.StringUtils;
 import org.testcontainers.utility.DockerImageName;
 
 import com.javaheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.javaheim.jdvm.testcontainers.jfr.ContainerLifecycleEvent;
+import com.javaheim.jdvm.testcontainers.jfr.ContainerLifecycleEvent.Phase;
 
 /**
- * The JavaDevVmContainer class provides a pre-configured singleton Docker container.
- * It ensures that the necessary setup is applied when the container is started.
+ * The JavaDevVmContainer class provides a pool of pre-configured Docker containers.
+ * The pool has one container unless the jdvm.pool.size system property says otherwise; all containers are identical
+ * and started concurrently during class initialization. Each test leases one container for its whole execution
+ * through the {@link JavaDevVmPoolExtension}, so tests running in parallel are sharded across the pool.
+ * Tests marked with {@link MutatesJavaDevVm} get their own fork started from a snapshot image of an initialized
+ * container instead, so the home directory is already set up and the entrypoint skips most of the initialization.
+ * The snapshot is taken before any container is leased, only when such a test was discovered.
+ * Start, wait for healthy, snapshot and stop of the containers are recorded as {@link ContainerLifecycleEvent} JFR events
+ * and their resource usage is sampled per test by the {@link ContainerStatsExtension}.
+ * The duration of each test is measured by the {@link TestDurationExtension}, so the next run starts the longest first.
  */
+@ExtendWith({JfrRecordingExtension.class, JavaDevVmPoolExtension.class, ContainerStatsExtension.class,
+        TestDurationExtension.class})
 public class JavaDevVmContainer {
 
-    private static final GenericContainer<?> JAVA_DEV_VM = new GenericContainer<>(
-            DockerImageName.parse(IMAGE_TAG)).withPrivilegedMode(true)
-            .withCreateContainerCmdModifier(cmd -> cmd.withVolumes(new Volume("/var/lib/docker")))
-            .withEnv("DISPLAY", StringUtils.EMPTY)
-            .waitingFor(Wait.forHealthcheck().withStartupTimeout(Duration.ofSeconds(5 * 60)));
+    private static final List<GenericContainer<?>> JAVA_DEV_VM_POOL = Stream.generate(JavaDevVmContainer::createJavaDevVm)
+            .limit(Integer.getInteger("jdvm.pool.size", 1))
+            .toList();
+
+    private static final BlockingQueue<GenericContainer<?>> IDLE_JAVA_DEV_VMS = new LinkedBlockingQueue<>(JAVA_DEV_VM_POOL);
+
+    private static final ThreadLocal<GenericContainer<?>> LEASED_JAVA_DEV_VM = new ThreadLocal<>();
+
+    private static final String SNAPSHOT_REPOSITORY = "jdvm-snapshot";
+
+    private static String snapshotImage;
 
     static {
-        getJavaDevVm().start();
-        Runtime.getRuntime().addShutdownHook(Thread.ofVirtual().unstarted(() -> getJavaDevVm().stop()));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture.allOf(JAVA_DEV_VM_POOL.stream()
+                    .map(javaDevVm -> CompletableFuture.runAsync(() -> startJavaDevVm(javaDevVm), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+        if (JavaDevVmPoolExtension.isMutatingTestDiscovered()) {
+            snapshotJavaDevVm();
+        }
+        JfrRecordingExtension.beforeRecordingStops(JavaDevVmContainer::stopJavaDevVms);
+        Runtime.getRuntime().addShutdownHook(Thread.ofVirtual().unstarted(JavaDevVmContainer::stopJavaDevVms));
     }
 
     /**
-     * Provides access to the pre-configured JavaDevVm container.
-     * This container is a singleton instance and is started during class initialization to
-     * ensure it is running and ready for use in related operations and tests.
+     * Provides access to the pre-configured JavaDevVm container leased by the current test.
+     * Outside a test it is the first container of the pool.
      */
     protected static GenericContainer<?> getJavaDevVm() {
-        return JAVA_DEV_VM;
+        GenericContainer<?> javaDevVm = LEASED_JAVA_DEV_VM.get();
+        return javaDevVm != null ? javaDevVm : JAVA_DEV_VM_POOL.getFirst();
     }
 
     /**
@@ -61,4 +98,128 @@ public class JavaDevVmContainer {
         return DockerExecutor.in(getJavaDevVm());
     }
 
+    /**
+     * Provides all containers of the pool.
+     */
+    static List<GenericContainer<?>> getJavaDevVmPool() {
+        return JAVA_DEV_VM_POOL;
+    }
+
+    /**
+     * Takes an idle container from the pool for the current thread, waiting until one is released.
+     */
+    static GenericContainer<?> leaseJavaDevVm() throws InterruptedException {
+        GenericContainer<?> javaDevVm = IDLE_JAVA_DEV_VMS.take();
+        LEASED_JAVA_DEV_VM.set(javaDevVm);
+        return javaDevVm;
+    }
+
+    /**
+     * Starts a fork of the JavaDevVm container from the snapshot image for the current thread.
+     */
+    static GenericContainer<?> forkJavaDevVm() {
+        GenericContainer<?> javaDevVm = createJavaDevVm(snapshotJavaDevVm());
+        startJavaDevVm(javaDevVm);
+        LEASED_JAVA_DEV_VM.set(javaDevVm);
+        return javaDevVm;
+    }
+
+    /**
+     * Returns the container leased by the current thread back to the pool, a fork is stopped and removed instead.
+     */
+    static void releaseJavaDevVm() {
+        GenericContainer<?> javaDevVm = LEASED_JAVA_DEV_VM.get();
+        if (javaDevVm != null) {
+            LEASED_JAVA_DEV_VM.remove();
+            if (JAVA_DEV_VM_POOL.contains(javaDevVm)) {
+                IDLE_JAVA_DEV_VMS.add(javaDevVm);
+            } else {
+                stopJavaDevVm(javaDevVm);
+            }
+        }
+    }
+
+    /**
+     * Commits the first container of the pool to the snapshot image once.
+     * It is committed during class initialization, before any lease, when a test marked with {@link MutatesJavaDevVm}
+     * was discovered, so every fork starts from the same state no matter which tests ran before.
+     * Otherwise, e.g. when another class orderer skipped the discovery, it is committed when the first fork is needed.
+     * The /var/lib/docker volume is not part of the snapshot, so every fork starts with an empty one.
+     */
+    private static synchronized String snapshotJavaDevVm() {
+        if (snapshotImage == null) {
+            GenericContainer<?> javaDevVm = JAVA_DEV_VM_POOL.getFirst();
+            ContainerLifecycleEvent event = ContainerLifecycleEvent.begin(IMAGE_TAG, Phase.SNAPSHOT);
+            DockerClientFactory.instance().client().commitCmd(javaDevVm.getContainerId())
+                    .withRepository(SNAPSHOT_REPOSITORY).withTag(DockerClientFactory.SESSION_ID).exec();
+            event.commit();
+            snapshotImage = SNAPSHOT_REPOSITORY + ":" + DockerClientFactory.SESSION_ID;
+        }
+        return snapshotImage;
+    }
+
+    private static GenericContainer<?> createJavaDevVm() {
+        return createJavaDevVm(IMAGE_TAG);
+    }
+
+    private static GenericContainer<?> createJavaDevVm(String image) {
+        return new GenericContainer<>(DockerImageName.parse(image)).withPrivilegedMode(true)
+                .withCreateContainerCmdModifier(cmd -> cmd.withVolumes(new Volume("/var/lib/docker")))
+                .withEnv("DISPLAY", StringUtils.EMPTY)
+                .waitingFor(recorded(image, Wait.forHealthcheck().withStartupTimeout(Duration.ofSeconds(5 * 60))));
+    }
+
+    private static void startJavaDevVm(GenericContainer<?> javaDevVm) {
+        ContainerLifecycleEvent event = ContainerLifecycleEvent.begin(javaDevVm.getDockerImageName(), Phase.START);
+        javaDevVm.start();
+        event.commit();
+    }
+
+    private static void stopJavaDevVm(GenericContainer<?> javaDevVm) {
+        ContainerLifecycleEvent event = ContainerLifecycleEvent.begin(javaDevVm.getDockerImageName(), Phase.STOP);
+        javaDevVm.stop();
+        event.commit();
+    }
+
+    /**
+     * Stops the JavaDevVm containers unless they were already stopped and removes the snapshot image.
+     * Called before the suite recording stops and from the shutdown hook as a fallback.
+     */
+    private static synchronized void stopJavaDevVms() {
+        for (GenericContainer<?> javaDevVm : JAVA_DEV_VM_POOL) {
+            if (javaDevVm.getContainerId() != null) {
+                stopJavaDevVm(javaDevVm);
+            }
+        }
+        if (snapshotImage != null) {
+            DockerClientFactory.instance().client().removeImageCmd(snapshotImage).withForce(true).exec();
+            snapshotImage = null;
+        }
+    }
+
+    /**
+     * Wraps the wait strategy, so waiting for the container to become healthy is recorded on its own.
+     */
+    private static WaitStrategy recorded(String image, WaitStrategy waitStrategy) {
+        return new WaitStrategy() {
+
+            @Override
+            public void waitUntilReady(WaitStrategyTarget waitStrategyTarget) {
+                ContainerLifecycleEvent event = ContainerLifecycleEvent.begin(image, Phase.WAIT_FOR_HEALTHY);
+                try {
+                    waitStrategy.waitUntilReady(waitStrategyTarget);
+                } finally {
+                    event.commit();
+                }
+            }
+
+            @Override
+            public WaitStrategy withStartupTimeout(Duration startupTimeout) {
+                waitStrategy.withStartupTimeout(startupTimeout);
+                return this;
+            }
+
+        };
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+/**
+ * JUnit extension leasing a JavaDevVm container from the pool for each test and returning it afterward.
+ * Tests executed in parallel by JUnit take the next idle container, so the pool works as a shared queue
+ * of containers and a test never shares its container with another running test.
+ * Tests marked with {@link MutatesJavaDevVm} run in their own fork of the container instead.
+ */
+public class JavaDevVmPoolExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static volatile boolean mutatingTestDiscovered;
+
+    /**
+     * Records whether any of the discovered test classes has a test marked with {@link MutatesJavaDevVm},
+     * called by the {@link LongestFirstClassOrderer} once the test classes are discovered.
+     */
+    static void discovered(List<Class<?>> testClasses) {
+        mutatingTestDiscovered = testClasses.stream().anyMatch(JavaDevVmPoolExtension::hasMutatingTest);
+    }
+
+    /**
+     * Tells whether a test marked with {@link MutatesJavaDevVm} was discovered, so a fork will be needed.
+     */
+    static boolean isMutatingTestDiscovered() {
+        return mutatingTestDiscovered;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws InterruptedException {
+        if (AnnotationSupport.isAnnotated(context.getTestMethod(), MutatesJavaDevVm.class)
+                || AnnotationSupport.isAnnotated(context.getTestClass(), MutatesJavaDevVm.class)) {
+            JavaDevVmContainer.forkJavaDevVm();
+        } else {
+            JavaDevVmContainer.leaseJavaDevVm();
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        JavaDevVmContainer.releaseJavaDevVm();
+    }
+
+    private static boolean hasMutatingTest(Class<?> testClass) {
+        return isMutating(testClass)
+                || !ReflectionSupport.findMethods(testClass, JavaDevVmPoolExtension::isMutating,
+                        HierarchyTraversalMode.TOP_DOWN).isEmpty()
+                || Arrays.stream(testClass.getDeclaredClasses()).anyMatch(JavaDevVmPoolExtension::hasMutatingTest);
+    }
+
+    private static boolean isMutating(AnnotatedElement element) {
+        return AnnotationSupport.isAnnotated(element, MutatesJavaDevVm.class);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit extension recording the whole suite run with Java Flight Recorder.
+ * The recording uses the JDK "profile" settings together with the harness events and it is written to
+ * target/jfr/java-dev-vm-{timestamp}.jfr when the suite run ends.
+ */
+public class JfrRecordingExtension implements BeforeAllCallback {
+
+    /** Name of the recording shared by all test classes of the run */
+    public static final String RECORDING_NAME = "java-dev-vm-harness";
+
+    private static final Path RECORDINGS_DIR = Path.of("target", "jfr");
+
+    private static final List<Runnable> BEFORE_STOP_ACTIONS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers an action executed right before the recording stops, e.g. stopping a container
+     * which would otherwise be stopped by a shutdown hook after the recording was written.
+     */
+    public static void beforeRecordingStops(Runnable action) {
+        BEFORE_STOP_ACTIONS.add(action);
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SuiteRecording.class, key -> SuiteRecording.start(), SuiteRecording.class);
+    }
+
+    /**
+     * Recording stored in the root context, so it is closed by JUnit once all test classes finished.
+     */
+    private record SuiteRecording(Recording recording) implements AutoCloseable {
+
+        private static SuiteRecording start() {
+            try {
+                Recording recording = new Recording(Configuration.getConfiguration("profile"));
+                recording.setName(RECORDING_NAME);
+                recording.start();
+                return new SuiteRecording(recording);
+            } catch (IOException | ParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            BEFORE_STOP_ACTIONS.forEach(Runnable::run);
+            Files.createDirectories(RECORDINGS_DIR);
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            recording.stop();
+            recording.dump(RECORDINGS_DIR.resolve("java-dev-vm-%s.jfr".formatted(timestamp)));
+            recording.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.util.Comparator;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Orders the test classes by their duration in previous runs, longest first, configured as the default class orderer
+ * in junit-platform.properties. Classes without a previous duration run first, ties are ordered by class name.
+ * The discovered classes are also passed to the {@link JavaDevVmPoolExtension}, so the pool knows if forks are needed.
+ */
+public class LongestFirstClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        JavaDevVmPoolExtension.discovered(context.getClassDescriptors().stream()
+                .<Class<?>>map(ClassDescriptor::getTestClass).toList());
+        context.getClassDescriptors().sort(Comparator.comparingLong(LongestFirstClassOrderer::previousDuration)
+                .reversed().thenComparing(descriptor -> descriptor.getTestClass().getName()));
+    }
+
+    private static long previousDuration(ClassDescriptor descriptor) {
+        long duration = TestDurations.previousDuration(TestDurations.key(descriptor.getTestClass()));
+        return duration < 0 ? Long.MAX_VALUE : duration;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.util.Comparator;
+import java.util.Optional;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Orders the test methods by their duration in previous runs, longest first, so the slowest tests do not stretch
+ * the end of the run. Methods without a previous duration run first, ties are ordered by method name.
+ * Unlike the built-in orderers it keeps the configured execution mode, so with a pool of containers the methods
+ * are still executed in parallel and the order only decides which ones are started first.
+ */
+public class LongestFirstMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        context.getMethodDescriptors().sort(Comparator.comparingLong(LongestFirstMethodOrderer::previousDuration)
+                .reversed().thenComparing(descriptor -> descriptor.getMethod().getName()));
+    }
+
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+
+    private static long previousDuration(MethodDescriptor descriptor) {
+        long duration = TestDurations.previousDuration(
+                TestDurations.key(descriptor.getMethod().getDeclaringClass(), descriptor.getMethod().getName()));
+        return duration < 0 ? Long.MAX_VALUE : duration;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.time.Duration;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit extension measuring the duration of each test class and method into the {@link TestDurations}.
+ * A test method is measured after its container was leased, so waiting for an idle container is not part of it.
+ */
+public class TestDurationExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TestDurationExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        start(context);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        record(context, TestDurations.key(context.getRequiredTestClass()));
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        start(context);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        record(context, TestDurations.key(context.getRequiredTestClass(), context.getRequiredTestMethod().getName()));
+    }
+
+    private static void start(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), System.nanoTime());
+    }
+
+    /**
+     * Records the duration in the durations stored in the root context, so they are written once the suite run ends.
+     */
+    private static void record(ExtensionContext context, String key) {
+        long start = context.getStore(NAMESPACE).remove(context.getUniqueId(), Long.class);
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(TestDurations.class, type -> new TestDurations(), TestDurations.class)
+                .record(key, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * © 2024-2025 Javaheim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.javaheim.jdvm.testcontainers.setup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Durations of the test classes and methods measured by the {@link TestDurationExtension}, in milliseconds.
+ * Durations of previous runs are read from target/test-durations.properties, so the {@link LongestFirstClassOrderer}
+ * and {@link LongestFirstMethodOrderer} can schedule the slowest tests first. Durations of the current run replace
+ * them when the suite run ends; tests which did not run, e.g. filtered out, keep their previous duration.
+ */
+final class TestDurations implements AutoCloseable {
+
+    static final Path DURATIONS_FILE = Path.of("target", "test-durations.properties");
+
+    private static final Map<String, Long> PREVIOUS_DURATIONS = load();
+
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    /**
+     * Duration of the test class or method in the previous runs, -1 when it is unknown.
+     */
+    static long previousDuration(String key) {
+        return PREVIOUS_DURATIONS.getOrDefault(key, -1L);
+    }
+
+    static String key(Class<?> testClass) {
+        return testClass.getName();
+    }
+
+    static String key(Class<?> testClass, String methodName) {
+        return testClass.getName() + "#" + methodName;
+    }
+
+    void record(String key, Duration duration) {
+        durations.put(key, duration.toMillis());
+    }
+
+    @Override
+    public void close() throws IOException {
+        Map<String, Long> merged = new TreeMap<>(PREVIOUS_DURATIONS);
+        merged.putAll(durations);
+        Files.createDirectories(DURATIONS_FILE.getParent());
+        Files.writeString(DURATIONS_FILE, merged.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("\n", "", "\n")));
+    }
+
+    private static Map<String, Long> load() {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(DURATIONS_FILE)) {
+            try (Reader reader = Files.newBufferedReader(DURATIONS_FILE)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                return Map.of();
+            }
+        }
+        Map<String, Long> durations = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                // a corrupted entry is measured again
+            }
+        }
+        return durations;
+    }
+
+}